@@ -0,0 +1,96 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест шлюза без внешних зависимостей: concurrency виртуальных пользователей в течение
+ * duration секунд отправляют GET-запросы один за другим. Запуск (JDK 11+):
+ * java gateway/load-test/LoadTest.java http://localhost:8080/users/1 1000 30 [userId]
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        String userId = args.length > 3 ? args[3] : "1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        List<VirtualUser> users = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            VirtualUser user = new VirtualUser(client, request, deadline, finished);
+            users.add(user);
+            user.next();
+        }
+        finished.await();
+
+        long[] latencies = users.stream().flatMapToLong(user -> user.latencies.stream().mapToLong(Long::longValue))
+                .sorted().toArray();
+        long errors = users.stream().mapToLong(user -> user.errors.get()).sum();
+        double seconds = durationNanos / 1e9;
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n",
+                latencies.length, errors, latencies.length / seconds);
+        if (latencies.length > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f max=%.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90),
+                    percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Следующий запрос отправляется только после ответа на предыдущий
+     */
+    private static class VirtualUser {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long deadline;
+        private final CountDownLatch finished;
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        VirtualUser(HttpClient client, HttpRequest request, long deadline, CountDownLatch finished) {
+            this.client = client;
+            this.request = request;
+            this.deadline = deadline;
+            this.finished = finished;
+        }
+
+        void next() {
+            long start = System.nanoTime();
+            if (start >= deadline) {
+                finished.countDown();
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        if (e != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(System.nanoTime() - start);
+                        }
+                        next();
+                    });
+        }
+    }
+}
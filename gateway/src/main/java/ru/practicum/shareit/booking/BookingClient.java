@@ -1,32 +1,44 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.constant.State;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUlr, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUlr, RestTemplateBuilder builder,
+                         RequestCoalescer coalescer,
+                         ClientResilience resilience) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUlr + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+                .build(),
+                coalescer,
+                resilience,
+                "bookings");
     }
 
     public ResponseEntity<Object> create(Long userId, BookingDtoIn bookingDtoIn) {
         return post("", userId, bookingDtoIn);
     }
 
+    public ResponseEntity<Object> createAll(Long userId, List<BookingDtoIn> bookingDtoIns) {
+        return post("/batch", userId, bookingDtoIns);
+    }
+
     public ResponseEntity<Object> getById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -49,8 +61,31 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getAllByStateAfterCursor(Long userId, State state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getAllByStateOwnerAfterCursor(Long userId, State state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
     public ResponseEntity<Object> update(Long userId, Long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public ResponseEntity<Object> updateAll(Long userId, List<Long> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("?approved={approved}", userId, parameters, bookingIds);
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -9,13 +10,20 @@ import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.constant.State;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
 
+import static ru.practicum.shareit.constant.Constant.BOOKING_BATCH_MAX_SIZE;
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
@@ -29,6 +37,14 @@ public class BookingController {
         return bookingClient.create(userId, bookingDtoIn);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                              @RequestBody @Size(min = 1, max = BOOKING_BATCH_MAX_SIZE)
+                                              List<@NotNull @Valid BookingDtoIn> bookingDtoIns) {
+        log.info("Поступил запрос на оформление {} аренд от пользователя с id: {}", bookingDtoIns.size(), userId);
+        return bookingClient.createAll(userId, bookingDtoIns);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                                  @PathVariable Long bookingId) {
@@ -60,6 +76,39 @@ public class BookingController {
         return bookingClient.getAllByStateOwner(userId, state, from, size);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Object> getBookingsByUserAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                               @RequestParam(required = false, defaultValue = "ALL")
+                                                                   @Valid State state,
+                                                               @RequestParam String cursor,
+                                                               @RequestParam(required = false, defaultValue = "20")
+                                                                   @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд от пользователя с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingClient.getAllByStateAfterCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<Object> getBookingsByOwnerAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                @RequestParam(required = false, defaultValue = "ALL")
+                                                                    @Valid State state,
+                                                                @RequestParam String cursor,
+                                                                @RequestParam(required = false, defaultValue = "20")
+                                                                    @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд вещей владельца с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingClient.getAllByStateOwnerAfterCursor(userId, state, cursor, size);
+    }
+
+    @PatchMapping
+    public ResponseEntity<Object> updateBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                 @RequestParam Boolean approved,
+                                                 @RequestBody @Size(min = 1, max = BOOKING_BATCH_MAX_SIZE)
+                                                 List<@NotNull Long> bookingIds) {
+        log.info("Поступил запрос на обновление статуса аренд с id: {}", bookingIds);
+        return bookingClient.updateAll(userId, bookingIds, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> updateBooking(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                                 @PathVariable Long bookingId,
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.constant.State;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+import static ru.practicum.shareit.constant.Constant.BOOKING_BATCH_MAX_SIZE;
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+@Slf4j
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> addBooking(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                   @Valid @RequestBody BookingDtoIn bookingDtoIn) {
+        log.info("Поступил запрос на оформление аренды: {} от пользователя с id: {}", bookingDtoIn, userId);
+        return bookingClient.create(userId, bookingDtoIn);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> addBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                    @RequestBody @Size(min = 1, max = BOOKING_BATCH_MAX_SIZE)
+                                                    List<@NotNull @Valid BookingDtoIn> bookingDtoIns) {
+        log.info("Поступил запрос на оформление {} аренд от пользователя с id: {}", bookingDtoIns.size(), userId);
+        return bookingClient.createAll(userId, bookingDtoIns);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<byte[]>> getBookingById(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                       @PathVariable Long bookingId) {
+        log.info("Поступил запрос на просмотр аренды с id: {} от пользователя с id: {}", bookingId, userId);
+        return bookingClient.getById(userId, bookingId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllBookingsByUser(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                             @RequestParam(required = false, defaultValue = "ALL")
+                                                                 @Valid State state,
+                                                             @RequestParam(required = false, defaultValue = "0")
+                                                                 @Min(0) int from,
+                                                             @RequestParam(required = false, defaultValue = "20")
+                                                                 @Min(1) int size) {
+        log.info("Поступил запрос на просмотр {} аренд от пользователя с id: {}", state, userId);
+        return bookingClient.getAllByState(userId, state, from, size);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<byte[]>> getAllBookingsForAllItemsByOwner(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                         @RequestParam(required = false, defaultValue = "ALL")
+                                                                             @Valid State state,
+                                                                         @RequestParam(required = false, defaultValue = "0")
+                                                                             @Min(0) int from,
+                                                                         @RequestParam(required = false, defaultValue = "20")
+                                                                             @Min(1) int size) {
+        log.info("Поступил запрос на просмотр {} аренд вещей владельца с id: {}", state, userId);
+        return bookingClient.getAllByStateOwner(userId, state, from, size);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<byte[]>> getBookingsByUserAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                     @RequestParam(required = false, defaultValue = "ALL")
+                                                                         @Valid State state,
+                                                                     @RequestParam String cursor,
+                                                                     @RequestParam(required = false, defaultValue = "20")
+                                                                         @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд от пользователя с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingClient.getAllByStateAfterCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public Mono<ResponseEntity<byte[]>> getBookingsByOwnerAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                      @RequestParam(required = false, defaultValue = "ALL")
+                                                                          @Valid State state,
+                                                                      @RequestParam String cursor,
+                                                                      @RequestParam(required = false, defaultValue = "20")
+                                                                          @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд вещей владельца с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingClient.getAllByStateOwnerAfterCursor(userId, state, cursor, size);
+    }
+
+    @PatchMapping
+    public Mono<ResponseEntity<byte[]>> updateBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                       @RequestParam Boolean approved,
+                                                       @RequestBody @Size(min = 1, max = BOOKING_BATCH_MAX_SIZE)
+                                                       List<@NotNull Long> bookingIds) {
+        log.info("Поступил запрос на обновление статуса аренд с id: {}", bookingIds);
+        return bookingClient.updateAll(userId, bookingIds, approved);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<byte[]>> updateBooking(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                      @PathVariable Long bookingId,
+                                                      @RequestParam Boolean approved) {
+        log.info("Поступил запрос на обновление статуса аренды с id: {}", bookingId);
+        return bookingClient.update(userId, bookingId, approved);
+    }
+}
\ No newline at end of file
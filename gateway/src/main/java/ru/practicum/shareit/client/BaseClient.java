@@ -1,24 +1,41 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 public class BaseClient {
     protected final RestTemplate rest;
-
-    public BaseClient(RestTemplate rest) {
+    private final RequestCoalescer coalescer;
+    private final ClientResilience resilience;
+    private final String apiGroup;
+
+    /**
+     * @param apiGroup имя circuit breaker и bulkhead, через которые идут запросы клиента
+     */
+    public BaseClient(RestTemplate rest, RequestCoalescer coalescer, ClientResilience resilience, String apiGroup) {
         this.rest = rest;
+        this.coalescer = coalescer;
+        this.resilience = resilience;
+        this.apiGroup = apiGroup;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -29,8 +46,15 @@ public class BaseClient {
         return get(path, userId, null);
     }
 
+    /**
+     * Одновременные GET-запросы с одинаковыми адресом, параметрами и пользователем выполняются одним запросом к серверу
+     */
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        return coalescer.execute(HttpMethod.GET + " " + uri + " " + userId,
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -81,20 +105,76 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Проксирует GET-ответ сервера без буферизации: тело копируется в ответ шлюза по мере получения.
+     * Ответ сервера открывается через circuit breaker и bulkhead до ответа шлюза, поэтому ошибка сервера
+     * доходит до клиента со своим статусом и телом, а недоступность сервера - через ErrorHandler
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType mediaType) {
+        ClientHttpResponse response = resilience.execute(apiGroup, bulkheadName(path),
+                () -> open(path, userId, mediaType));
+        try {
+            int status = response.getRawStatusCode();
+            MediaType contentType = response.getHeaders().getContentType();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                    .contentType(contentType != null ? contentType : mediaType);
+            if (HttpStatus.Series.resolve(status) != HttpStatus.Series.SUCCESSFUL) {
+                byte[] error = StreamUtils.copyToByteArray(response.getBody());
+                response.close();
+                return responseBuilder.body(out -> out.write(error));
+            }
+            return responseBuilder.body(out -> {
+                try (ClientHttpResponse upstream = response) {
+                    StreamUtils.copy(upstream.getBody(), out);
+                }
+            });
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Bulkhead для запроса; по умолчанию общий для всех запросов клиента
+     */
+    protected String bulkheadName(String path) {
+        return apiGroup;
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return resilience.execute(apiGroup, bulkheadName(path),
+                () -> exchange(method, path, userId, parameters, body));
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private ClientHttpResponse open(String path, Long userId, MediaType mediaType) {
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(mediaType));
+            if (userId != null) {
+                request.getHeaders().set(OWNER_ID_HEADER, String.valueOf(userId));
+            }
+            return request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -107,15 +187,17 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Тело ответа сервера не разбирается: байты передаются клиенту как есть вместе со статусом и Content-Type
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (headers != null && headers.getContentType() != null) {
+            responseBuilder.contentType(headers.getContentType());
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
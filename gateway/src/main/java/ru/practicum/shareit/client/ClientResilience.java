@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker на группу API сервера и bulkhead на группу (поиск вещей — отдельно), настройки —
+ * resilience4j.circuitbreaker.instances.* и resilience4j.bulkhead.instances.*.
+ * Состояние доступно через actuator (circuitbreakers, bulkheads) и метрики resilience4j.*,
+ * отклонённые переполненным bulkhead вызовы считаются метрикой gateway.bulkhead.rejected
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientResilience {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ClientResilience(CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry,
+                            MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        bulkheadRegistry.getAllBulkheads().forEach(bulkhead -> countRejections(bulkhead, meterRegistry));
+        bulkheadRegistry.getEventPublisher()
+                .onEntryAdded(event -> countRejections(event.getAddedEntry(), meterRegistry));
+    }
+
+    /**
+     * Bulkhead снаружи: вызов, не получивший места, не учитывается circuit breaker как ошибка сервера.
+     * При открытом circuit breaker вызов сразу завершается CallNotPermittedException
+     */
+    public <T> T execute(String circuitBreakerName, String bulkheadName, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(circuitBreakerName);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(bulkheadName);
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+
+    private static void countRejections(Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("gateway.bulkhead.rejected")
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+    }
+}
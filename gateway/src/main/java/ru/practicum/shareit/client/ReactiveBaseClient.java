@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Неблокирующий аналог BaseClient. Тело ответа сервера не разбирается, а передаётся клиенту
+ * как есть вместе со статусом и Content-Type
+ */
+public class ReactiveBaseClient {
+    protected final WebClient web;
+
+    public ReactiveBaseClient(WebClient web) {
+        this.web = web;
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(String path) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, null, null, null);
+    }
+
+    /**
+     * Проксирует GET-ответ сервера без буферизации: части тела отдаются клиенту по мере получения.
+     * Статус и Content-Type берутся из ответа сервера, поэтому его ошибка не превращается в 200
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, MediaType mediaType) {
+        return web.get()
+                .uri(path)
+                .accept(mediaType)
+                .headers(headers -> setUserId(headers, userId))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    MediaType contentType = response.getHeaders().getContentType();
+                    return ResponseEntity.status(response.getStatusCodeValue())
+                            .contentType(contentType != null ? contentType : mediaType)
+                            .body(response.getBody());
+                });
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> setUserId(headers, userId));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(ReactiveBaseClient::prepareGatewayResponse);
+    }
+
+    private static void setUserId(HttpHeaders headers, Long userId) {
+        if (userId != null) {
+            headers.set(OWNER_ID_HEADER, String.valueOf(userId));
+        }
+    }
+
+    private static Mono<ResponseEntity<byte[]>> prepareGatewayResponse(ClientResponse response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.rawStatusCode());
+        List<String> contentType = response.headers().header(HttpHeaders.CONTENT_TYPE);
+        if (!contentType.isEmpty()) {
+            responseBuilder.header(HttpHeaders.CONTENT_TYPE, contentType.get(0));
+        }
+
+        return response.bodyToMono(byte[].class)
+                .map(responseBuilder::body)
+                .defaultIfEmpty(responseBuilder.build());
+    }
+}
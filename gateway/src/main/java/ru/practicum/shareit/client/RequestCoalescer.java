@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые запросы к серверу: пока запрос с ключом key выполняется,
+ * остальные потоки с тем же ключом ждут его результат, а не отправляют свой.
+ * Счётчики gateway.coalescing.requests (outcome=leader — запрос отправлен, follower — получен чужой результат)
+ * и доля объединённых запросов gateway.coalescing.ratio публикуются как метрики
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("gateway.coalescing.requests")
+                .tag("outcome", "leader")
+                .register(meterRegistry);
+        this.followers = Counter.builder("gateway.coalescing.requests")
+                .tag("outcome", "follower")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescer::ratio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Результат (или исключение) лидера получают все, кто пришёл с тем же ключом до его завершения
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> request) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            followers.increment();
+            return (T) await(leader);
+        }
+
+        leaders.increment();
+        try {
+            T result = request.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private double ratio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+}
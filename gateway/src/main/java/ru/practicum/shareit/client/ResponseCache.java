@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш ответов сервера.
+ * Кэшируются только успешные ответы; статистика попаданий публикуется как метрики cache.* с тегом cache=name.
+ */
+public class ResponseCache<T> {
+
+    private final Cache<String, ResponseEntity<T>> cache;
+
+    public ResponseCache(String name, long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    ResponseCache(String name, long maxSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public ResponseEntity<T> get(String key, Supplier<ResponseEntity<T>> request) {
+        ResponseEntity<T> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        ResponseEntity<T> response = request.get();
+        put(key, response);
+        return response;
+    }
+
+    /**
+     * То же, что get, для неблокирующего клиента: запрос к серверу выполняется только при промахе
+     */
+    public Mono<ResponseEntity<T>> getAsync(String key, Supplier<Mono<ResponseEntity<T>>> request) {
+        return Mono.defer(() -> {
+            ResponseEntity<T> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return request.get().doOnNext(response -> put(key, response));
+        });
+    }
+
+    private void put(String key, ResponseEntity<T> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.put(key, response);
+        }
+    }
+
+    /**
+     * Удаляет все записи, ключ которых начинается с prefix
+     */
+    public void invalidatePrefix(String prefix) {
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Реактивный режим шлюза (spring.main.web-application-type=reactive): Netty вместо Tomcat
+ * и общий пул соединений WebClient с сервером. Запрос, ожидающий ответа сервера, не занимает поток;
+ * состояние пула публикуется как метрики reactor.netty.connection.provider.*
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientConfig {
+
+    /**
+     * Tomcat тоже есть в classpath, и без явной фабрики Spring Boot запустил бы реактивное приложение на нём
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Очередь ожидания соединения заменяет очередь потоков Tomcat, поэтому ждать в ней можно дольше,
+     * чем в пуле блокирующего клиента
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${shareit-gateway.web-client.max-connections}") int maxConnections,
+            @Value("${shareit-gateway.web-client.max-pending-acquires}") int maxPendingAcquires,
+            @Value("${shareit-gateway.web-client.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+            @Value("${shareit-gateway.http-client.idle-timeout}") Duration idleTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxPendingAcquires)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(idleTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Подхватывается автоконфигурацией WebClient.Builder, поэтому все реактивные клиенты используют один пул
+     */
+    @Bean
+    public ClientHttpConnector clientHttpConnector(
+            ConnectionProvider connectionProvider,
+            @Value("${shareit-gateway.http-client.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-gateway.http-client.read-timeout}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -6,4 +6,8 @@ public final class Constant {
     }
 
     public static final String OWNER_ID_HEADER = "X-Sharer-User-Id";
+
+    public static final int BOOKING_BATCH_MAX_SIZE = 100;
+
+    public static final int CURSOR_PAGE_MAX_SIZE = 1000;
 }
\ No newline at end of file
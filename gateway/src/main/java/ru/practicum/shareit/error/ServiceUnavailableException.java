@@ -0,0 +1,7 @@
+package ru.practicum.shareit.error;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
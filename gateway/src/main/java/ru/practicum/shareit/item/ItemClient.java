@@ -1,51 +1,117 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String ITEM_KEY = "item:";
+    private static final String SEARCH_KEY = "search:";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    /**
+     * Информация о вещи зависит от пользователя (владелец видит аренды), поэтому ключ включает его id.
+     * Поиск сейчас на сервере от пользователя не зависит, но заголовок пользователя передаётся,
+     * и ключ поиска тоже включает его id, чтобы кэш не раздал чужой ответ, если сервер начнёт его учитывать.
+     */
+    private final ResponseCache<Object> cache;
+
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-gateway.items-cache.max-size}") long cacheSize,
+                      @Value("${shareit-gateway.items-cache.ttl}") Duration cacheTtl,
+                      RestTemplateBuilder builder,
+                      RequestCoalescer coalescer,
+                      ClientResilience resilience,
+                      MeterRegistry meterRegistry) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
+                .build(),
+                coalescer,
+                resilience,
+                "items"
         );
+        this.cache = new ResponseCache<>("items", cacheSize, cacheTtl, meterRegistry);
+    }
+
+    /**
+     * Медленный поиск не должен занимать места остальных запросов к вещам
+     */
+    @Override
+    protected String bulkheadName(String path) {
+        return path.startsWith("/search") ? "search" : super.bulkheadName(path);
     }
 
     public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        cache.invalidatePrefix(SEARCH_KEY);
+        return response;
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        cache.invalidatePrefix(ITEM_KEY + itemId + ":");
+        return response;
     }
 
     public ResponseEntity<Object> getById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+        return cache.get(ITEM_KEY + itemId + ":" + userId, () -> get("/" + itemId, userId));
+    }
+
+    public ResponseEntity<Object> getOwnerItems(Long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getOwnerItems(Long userId) {
-        return get("", userId);
+    public ResponseEntity<StreamingResponseBody> exportOwnerItems(Long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 
-    public ResponseEntity<Object> search(Long userId, String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", userId, parameters);
+    /**
+     * Не кэшируется: свободные окна меняются с каждой арендой
+     */
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> search(Long userId, String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return cache.get(SEARCH_KEY + userId + ":" + from + ":" + size + ":" + text,
+                () -> get("/search?text={text}&from={from}&size={size}", userId, parameters));
     }
 
     public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDto);
+        cache.invalidatePrefix(ITEM_KEY + itemId + ":");
+        cache.invalidatePrefix(SEARCH_KEY);
+        return response;
     }
 }
@@ -2,17 +2,26 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
+@Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
@@ -42,16 +51,41 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+    public ResponseEntity<Object> getOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                @RequestParam(required = false, defaultValue = "0")
+                                                    @Min(0) int from,
+                                                @RequestParam(required = false, defaultValue = "20")
+                                                    @Min(1) int size) {
         log.info("Поступил запрос на получение списка всех вещей пользователя с id: {}", userId);
-        return itemClient.getOwnerItems(userId);
+        return itemClient.getOwnerItems(userId, from, size);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Поступил запрос на выгрузку всех вещей пользователя с id: {}", userId);
+        return itemClient.exportOwnerItems(userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.info("Поступил запрос на получение свободных окон вещи с id: {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> getItemsByKeyWord(@RequestHeader(OWNER_ID_HEADER) Long userId,
-                                                    @RequestParam String text) {
+                                                    @RequestParam String text,
+                                                    @RequestParam(required = false, defaultValue = "0")
+                                                        @Min(0) int from,
+                                                    @RequestParam(required = false, defaultValue = "20")
+                                                        @Min(1) int size) {
         log.info("Поступил запрос на поиск по тексту: {}", text);
-        return itemClient.search(userId, text);
+        return itemClient.search(userId, text, from, size);
     }
 
     @PatchMapping("/{itemId}")
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+    private static final String ITEM_KEY = "item:";
+    private static final String SEARCH_KEY = "search:";
+
+    /**
+     * Ключи те же, что в ItemClient
+     */
+    private final ResponseCache<byte[]> cache;
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit-gateway.items-cache.max-size}") long cacheSize,
+                              @Value("${shareit-gateway.items-cache.ttl}") Duration cacheTtl,
+                              WebClient.Builder builder,
+                              MeterRegistry meterRegistry) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build()
+        );
+        this.cache = new ResponseCache<>("items", cacheSize, cacheTtl, meterRegistry);
+    }
+
+    public Mono<ResponseEntity<byte[]>> addItem(Long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .doOnNext(response -> cache.invalidatePrefix(SEARCH_KEY));
+    }
+
+    public Mono<ResponseEntity<byte[]>> addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto)
+                .doOnNext(response -> cache.invalidatePrefix(ITEM_KEY + itemId + ":"));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getById(Long itemId, Long userId) {
+        return cache.getAsync(ITEM_KEY + itemId + ":" + userId, () -> get("/" + itemId, userId));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getOwnerItems(Long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportOwnerItems(Long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    /**
+     * Не кэшируется: свободные окна меняются с каждой арендой
+     */
+    public Mono<ResponseEntity<byte[]>> getAvailability(Long userId, Long itemId,
+                                                        LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> search(Long userId, String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return cache.getAsync(SEARCH_KEY + userId + ":" + from + ":" + size + ":" + text,
+                () -> get("/search?text={text}&from={from}&size={size}", userId, parameters));
+    }
+
+    public Mono<ResponseEntity<byte[]>> update(Long userId, Long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto)
+                .doOnNext(response -> {
+                    cache.invalidatePrefix(ITEM_KEY + itemId + ":");
+                    cache.invalidatePrefix(SEARCH_KEY);
+                });
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+@Slf4j
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@RequestMapping("/items")
+public class ReactiveItemController {
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> add(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                            @Valid @RequestBody ItemDto itemDto) {
+        log.info("Поступил запрос на добавление вещи {} от пользователя: {}", itemDto, userId);
+        return itemClient.addItem(userId, itemDto);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<byte[]>> addComment(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @Valid @RequestBody CommentDto commentDto) {
+        log.info("Поступил запрос на добавление отзыва к товару с id: {}, от пользователя с id: {}, comment: {}",
+                itemId, userId, commentDto);
+        return itemClient.addComment(userId, itemId, commentDto);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> getInfo(@PathVariable Long itemId, @RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Поступил запрос на получение информации о вещи с id: {} от пользователя с id: {}", itemId, userId);
+        return itemClient.getById(itemId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                      @RequestParam(required = false, defaultValue = "0")
+                                                          @Min(0) int from,
+                                                      @RequestParam(required = false, defaultValue = "20")
+                                                          @Min(1) int size) {
+        log.info("Поступил запрос на получение списка всех вещей пользователя с id: {}", userId);
+        return itemClient.getOwnerItems(userId, from, size);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Поступил запрос на выгрузку всех вещей пользователя с id: {}", userId);
+        return itemClient.exportOwnerItems(userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<byte[]>> getAvailability(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                        @PathVariable Long itemId,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                            LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                            LocalDateTime to) {
+        log.info("Поступил запрос на получение свободных окон вещи с id: {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<byte[]>> getItemsByKeyWord(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                          @RequestParam String text,
+                                                          @RequestParam(required = false, defaultValue = "0")
+                                                              @Min(0) int from,
+                                                          @RequestParam(required = false, defaultValue = "20")
+                                                              @Min(1) int size) {
+        log.info("Поступил запрос на поиск по тексту: {}", text);
+        return itemClient.search(userId, text, from, size);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> update(@RequestHeader(OWNER_ID_HEADER) Long userID,
+                                               @PathVariable Long itemId,
+                                               @RequestBody ItemDto itemDto) {
+        log.info("Поступил запрос на обновление/изменение вещи: {} от пользователя с id: {}", itemDto, userID);
+        return itemClient.update(userID, itemId, itemDto);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общий лимит одновременно проксируемых запросов. Сверх max-concurrent запрос ждёт в очереди
+ * не дольше queue-timeout; если очередь длиннее max-queue или время вышло, запрос отклоняется,
+ * и сервер не получает больше запросов, чем может обработать его пул соединений с БД.
+ * Метрики: gateway.admission.in-flight, gateway.admission.queued, gateway.admission.rejected
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ConcurrencyLimiter {
+
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+
+    public ConcurrencyLimiter(@Value("${shareit-gateway.admission.max-concurrent}") int maxConcurrent,
+                              @Value("${shareit-gateway.admission.max-queue}") int maxQueue,
+                              @Value("${shareit-gateway.admission.queue-timeout}") Duration queueTimeout,
+                              MeterRegistry meterRegistry) {
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejected = Counter.builder("gateway.admission.rejected").register(meterRegistry);
+        Gauge.builder("gateway.admission.in-flight", permits, p -> maxConcurrent - p.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.queued", queued, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
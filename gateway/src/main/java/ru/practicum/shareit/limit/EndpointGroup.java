@@ -0,0 +1,20 @@
+package ru.practicum.shareit.limit;
+
+/**
+ * Группы эндпоинтов с отдельными лимитами запросов на пользователя
+ */
+public enum EndpointGroup {
+    BOOKINGS,
+    SEARCH,
+    DEFAULT;
+
+    public static EndpointGroup of(String path) {
+        if (path.startsWith("/bookings")) {
+            return BOOKINGS;
+        }
+        if (path.startsWith("/items/search")) {
+            return SEARCH;
+        }
+        return DEFAULT;
+    }
+}
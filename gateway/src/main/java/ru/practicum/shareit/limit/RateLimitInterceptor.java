@@ -0,0 +1,46 @@
+package ru.practicum.shareit.limit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.error.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Запросы без заголовка пользователя не ограничиваются: контроллер отклонит их сам
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String userId = request.getHeader(OWNER_ID_HEADER);
+        if (userId == null) {
+            return true;
+        }
+        long userKey;
+        try {
+            userKey = Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            return true;
+        }
+
+        EndpointGroup group = EndpointGroup.of(request.getRequestURI());
+        long waitNanos = rateLimiter.tryAcquire(userKey, group);
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Too many requests from user " + userKey,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        return true;
+    }
+}
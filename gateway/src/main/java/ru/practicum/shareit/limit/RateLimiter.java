@@ -0,0 +1,74 @@
+package ru.practicum.shareit.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Лимит запросов на пару (пользователь, группа эндпоинтов). Корзина пользователя, не делавшего запросов
+ * дольше idle-timeout, удаляется, число корзин ограничено max-buckets.
+ * Отклонённые запросы считаются метрикой gateway.rate-limit.rejected с тегом group
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<EndpointGroup, Limit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+
+    public RateLimiter(@Value("${shareit-gateway.rate-limit.max-buckets}") long maxBuckets,
+                       @Value("${shareit-gateway.rate-limit.idle-timeout}") Duration idleTimeout,
+                       @Value("${shareit-gateway.rate-limit.bookings.per-second}") double bookingsPerSecond,
+                       @Value("${shareit-gateway.rate-limit.bookings.burst}") int bookingsBurst,
+                       @Value("${shareit-gateway.rate-limit.search.per-second}") double searchPerSecond,
+                       @Value("${shareit-gateway.rate-limit.search.burst}") int searchBurst,
+                       @Value("${shareit-gateway.rate-limit.default.per-second}") double defaultPerSecond,
+                       @Value("${shareit-gateway.rate-limit.default.burst}") int defaultBurst,
+                       MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        limits.put(EndpointGroup.BOOKINGS, new Limit(bookingsPerSecond, bookingsBurst));
+        limits.put(EndpointGroup.SEARCH, new Limit(searchPerSecond, searchBurst));
+        limits.put(EndpointGroup.DEFAULT, new Limit(defaultPerSecond, defaultBurst));
+        for (EndpointGroup group : EndpointGroup.values()) {
+            rejected.put(group, Counter.builder("gateway.rate-limit.rejected")
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * @return 0, если запрос разрешён, иначе через сколько наносекунд пользователь может повторить запрос
+     */
+    public long tryAcquire(long userId, EndpointGroup group) {
+        Limit limit = limits.get(group);
+        TokenBucket bucket = buckets.get(group + ":" + userId,
+                key -> new TokenBucket(limit.permitsPerSecond, limit.burst));
+        long wait = bucket.tryAcquire(System.nanoTime());
+        if (wait > 0) {
+            rejected.get(group).increment();
+        }
+        return wait;
+    }
+
+    private static class Limit {
+        private final double permitsPerSecond;
+        private final int burst;
+
+        Limit(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+}
@@ -2,19 +2,23 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
 @Validated
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 public class ItemRequestController {
@@ -47,6 +51,16 @@ public class ItemRequestController {
         return itemRequestClient.getAll(userId, from, size);
     }
 
+    @GetMapping(path = "/all", params = "cursor")
+    public ResponseEntity<Object> getAllAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                    @RequestParam String cursor,
+                                                    @RequestParam(required = false, defaultValue = "20")
+                                                        @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на получение ленты запросов от пользователя с id: {} после курсора: {}",
+                userId, cursor);
+        return itemRequestClient.getAllAfterCursor(userId, cursor, size);
+    }
+
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getById(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                           @PathVariable Long requestId) {
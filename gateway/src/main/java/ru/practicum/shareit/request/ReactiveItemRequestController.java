@@ -0,0 +1,71 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+@Slf4j
+@Validated
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+public class ReactiveItemRequestController {
+
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createRequest(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                      @Valid @RequestBody ItemRequestDto itemRequestDto) {
+        log.info("Поступил запрос на создание запроса от пользователя с id: {}, текст запроса: {}",
+                userId, itemRequestDto.getDescription());
+        return itemRequestClient.create(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllByRequesterId(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                            @RequestParam(required = false, defaultValue = "0")
+                                                                @Min(0) int from,
+                                                            @RequestParam(required = false, defaultValue = "20")
+                                                                @Min(1) int size) {
+        log.info("Поступил запрос на получение запросов, созданых пользователем с id: {}", userId);
+        return itemRequestClient.getAllByRequesterId(userId, from, size);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<byte[]>> getAll(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                               @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                               @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
+        log.info("Поступил запрос на получение запросов от пользователя с id: {}", userId);
+        return itemRequestClient.getAll(userId, from, size);
+    }
+
+    @GetMapping(path = "/all", params = "cursor")
+    public Mono<ResponseEntity<byte[]>> getAllAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                          @RequestParam String cursor,
+                                                          @RequestParam(required = false, defaultValue = "20")
+                                                              @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на получение ленты запросов от пользователя с id: {} после курсора: {}",
+                userId, cursor);
+        return itemRequestClient.getAllAfterCursor(userId, cursor, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<byte[]>> getById(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                @PathVariable Long requestId) {
+        log.info("Поступил запрос на получение запроса с id {} от пользователя с id: {}", requestId, userId);
+        return itemRequestClient.getById(userId, requestId);
+    }
+}
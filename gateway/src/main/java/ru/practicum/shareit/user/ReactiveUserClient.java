@@ -0,0 +1,43 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder
+                .baseUrl(serverUrl + API_PREFIX)
+                .build()
+        );
+    }
+
+    public Mono<ResponseEntity<byte[]>> create(UserDto userDto) {
+        return post("", null, userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getById(Long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAll() {
+        return get("");
+    }
+
+    public Mono<ResponseEntity<byte[]>> update(Long userId, UserDto userDto) {
+        return patch("/" + userId, userId, null, userDto);
+    }
+
+    public Mono<Void> deleteById(Long userId) {
+        return delete("/" + userId).then();
+    }
+}
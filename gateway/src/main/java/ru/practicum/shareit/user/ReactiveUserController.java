@@ -0,0 +1,51 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+
+@Slf4j
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> addUser(@Valid @RequestBody UserDto userDto) {
+        log.info("Поступил запрос на добавление пользователя: {}", userDto);
+        return userClient.create(userDto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> getUserById(@PathVariable Long userId) {
+        log.info("Поступил запрос на получение пользователя с  id = {}", userId);
+        return userClient.getById(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllUsers() {
+        log.info("Поступил запрос на получение списка всех пользователей");
+        return userClient.getAll();
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> updateUser(@PathVariable Long userId, @RequestBody UserDto userDto) {
+        log.info("Поступил запрос на обновление пользователя с id = {}, данные на обновление: {}", userId, userDto);
+        return userClient.update(userId, userDto);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<Void> deleteUserById(@PathVariable Long userId) {
+        log.info("Поступил запрос на удаление пользователя с id = {}", userId);
+        return userClient.deleteById(userId);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+public class BaseClientTest {
+
+    private static final String EXPORT_URL = "http://server/items/export";
+
+    private final RestTemplate rest = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TestClient client = new TestClient(rest, new ClientResilience(circuitBreakerRegistry,
+            BulkheadRegistry.ofDefaults(), meterRegistry), meterRegistry);
+
+    @Test
+    void shouldStreamSuccessfulResponseTest() throws IOException {
+        server.expect(requestTo(EXPORT_URL))
+                .andExpect(header(OWNER_ID_HEADER, "1"))
+                .andRespond(withSuccess("{\"id\":1}\n{\"id\":2}\n", MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = client.export(1L);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(write(response), equalTo("{\"id\":1}\n{\"id\":2}\n"));
+        server.verify();
+    }
+
+    @Test
+    void shouldForwardServerErrorBeforeStreamingTest() throws IOException {
+        server.expect(requestTo(EXPORT_URL))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"User not found.\"}"));
+
+        ResponseEntity<StreamingResponseBody> response = client.export(99L);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(write(response), equalTo("{\"error\":\"User not found.\"}"));
+    }
+
+    @Test
+    void shouldNotCallServerWhileCircuitIsOpenTest() {
+        circuitBreakerRegistry.circuitBreaker("items").transitionToOpenState();
+
+        assertThrows(CallNotPermittedException.class, () -> client.export(1L));
+        server.verify();
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest, ClientResilience resilience, SimpleMeterRegistry meterRegistry) {
+            super(rest, new RequestCoalescer(meterRegistry), resilience, "items");
+            rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"));
+        }
+
+        ResponseEntity<StreamingResponseBody> export(Long userId) {
+            return stream("/export", userId, MediaType.APPLICATION_NDJSON);
+        }
+    }
+}
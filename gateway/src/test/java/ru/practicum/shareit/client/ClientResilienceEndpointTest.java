@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Состояние circuit breaker и отказы bulkhead видны через actuator: эндпоинты перечисляют экземпляры,
+ * состояние и счётчики отдают метрики. Breaker users открывается после двух ошибок, bulkhead поиска вмещает один вызов
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=servlet",
+        "resilience4j.circuitbreaker.instances.users.sliding-window-size=2",
+        "resilience4j.circuitbreaker.instances.users.minimum-number-of-calls=2",
+        "resilience4j.bulkhead.instances.search.max-concurrent-calls=1"
+})
+@AutoConfigureWebTestClient
+public class ClientResilienceEndpointTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ClientResilience resilience;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldExposeCircuitBreakerStateTest() {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.execute("users", "users", () -> {
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+
+        client.get().uri("/actuator/circuitbreakers")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.circuitBreakers[?(@ == 'users')]").exists();
+        client.get().uri("/actuator/metrics/resilience4j.circuitbreaker.state?tag=name:users&tag=state:open")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.measurements[0].value").isEqualTo(1.0);
+        client.get().uri("/actuator/metrics/resilience4j.circuitbreaker.calls?tag=name:users&tag=kind:failed")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").isEqualTo(2.0);
+        client.get().uri("/actuator/metrics/resilience4j.circuitbreaker.state?tag=name:bookings&tag=state:closed")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.measurements[0].value").isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldExposeBulkheadRejectionsTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> search = CompletableFuture.supplyAsync(() -> resilience.execute("items", "search",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "search";
+                }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        assertThrows(BulkheadFullException.class, () -> resilience.execute("items", "search", () -> "rejected"));
+        release.countDown();
+        search.get(5, TimeUnit.SECONDS);
+
+        client.get().uri("/actuator/bulkheads")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.bulkheads[?(@ == 'search')]").exists();
+        client.get().uri("/actuator/metrics/gateway.bulkhead.rejected?tag=name:search")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.measurements[0].value").isEqualTo(1.0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Call was not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
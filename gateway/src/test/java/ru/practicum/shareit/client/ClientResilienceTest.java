@@ -0,0 +1,160 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Circuit breaker открывается после двух неудачных вызовов из двух и через WAIT_IN_OPEN пропускает одну пробу,
+ * bulkhead поиска вмещает один вызов
+ */
+public class ClientResilienceTest {
+
+    private static final Duration WAIT_IN_OPEN = Duration.ofMillis(100);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(WAIT_IN_OPEN)
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .recordExceptions(ResourceAccessException.class)
+            .build());
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientResilience resilience = new ClientResilience(circuitBreakerRegistry, bulkheadRegistry,
+            meterRegistry);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldFailFastWhileCircuitIsOpenTest() {
+        AtomicInteger calls = new AtomicInteger();
+
+        openCircuit("items");
+        assertThrows(CallNotPermittedException.class,
+                () -> resilience.execute("items", "items", calls::incrementAndGet));
+
+        assertThat(calls.get(), equalTo(0));
+        assertThat(circuitBreakerRegistry.circuitBreaker("users").getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void shouldProbeServerInHalfOpenStateTest() throws InterruptedException {
+        openCircuit("items");
+        Thread.sleep(WAIT_IN_OPEN.multipliedBy(2).toMillis());
+
+        assertThat(resilience.execute("items", "items", () -> "probe"), equalTo("probe"));
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("items").getState(), equalTo(CircuitBreaker.State.CLOSED));
+    }
+
+    @Test
+    void shouldReopenCircuitWhenProbeFailsTest() throws InterruptedException {
+        openCircuit("items");
+        Thread.sleep(WAIT_IN_OPEN.multipliedBy(2).toMillis());
+
+        assertThrows(ResourceAccessException.class, () -> resilience.execute("items", "items", () -> {
+            throw new ResourceAccessException("Connection refused");
+        }));
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("items").getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    @Test
+    void shouldNotBlockBookingsWhenSearchBulkheadIsFullTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> search = occupySearch(release);
+
+        assertThrows(BulkheadFullException.class, () -> resilience.execute("items", "search", () -> "rejected"));
+        String bookings = resilience.execute("bookings", "bookings", () -> "bookings");
+        release.countDown();
+
+        assertThat(bookings, equalTo("bookings"));
+        assertThat(search.get(5, TimeUnit.SECONDS), equalTo("search"));
+        assertThat(rejected("search"), equalTo(1.0));
+        assertThat(rejected("bookings"), equalTo(0.0));
+    }
+
+    @Test
+    void shouldNotCountBulkheadRejectionAsServerFailureTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> search = occupySearch(release);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(BulkheadFullException.class, () -> resilience.execute("items", "search", () -> "rejected"));
+        }
+        release.countDown();
+        search.get(5, TimeUnit.SECONDS);
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker("items").getMetrics();
+        assertThat(metrics.getNumberOfFailedCalls(), equalTo(0));
+        assertThat(metrics.getNumberOfSuccessfulCalls(), equalTo(1));
+    }
+
+    private void openCircuit(String name) {
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.execute(name, name, () -> {
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker(name).getState(), equalTo(CircuitBreaker.State.OPEN));
+    }
+
+    /**
+     * Занимает единственное место в bulkhead поиска до открытия release
+     */
+    private CompletableFuture<String> occupySearch(CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> search = CompletableFuture.supplyAsync(() -> resilience.execute("items", "search",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "search";
+                }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS), equalTo(true));
+        return search;
+    }
+
+    private double rejected(String bulkheadName) {
+        return meterRegistry.get("gateway.bulkhead.rejected").tag("name", bulkheadName).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Call was not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
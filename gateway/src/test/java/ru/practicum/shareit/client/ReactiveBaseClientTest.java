@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ReactiveBaseClientTest {
+
+    @Test
+    void shouldStreamSuccessfulResponseTest() {
+        ReactiveBaseClient client = client(HttpStatus.OK, MediaType.APPLICATION_NDJSON, "{\"id\":1}\n{\"id\":2}\n");
+
+        ResponseEntity<Flux<DataBuffer>> response = client.stream("/export", 1L, MediaType.APPLICATION_NDJSON).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(read(response), equalTo("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void shouldForwardServerErrorStatusAndBodyTest() {
+        ReactiveBaseClient client = client(HttpStatus.NOT_FOUND, MediaType.APPLICATION_JSON,
+                "{\"error\":\"User not found.\"}");
+
+        ResponseEntity<Flux<DataBuffer>> response = client.stream("/export", 99L, MediaType.APPLICATION_NDJSON).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(read(response), equalTo("{\"error\":\"User not found.\"}"));
+    }
+
+    private static ReactiveBaseClient client(HttpStatus status, MediaType contentType, String body) {
+        WebClient web = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, contentType.toString())
+                        .body(body)
+                        .build()))
+                .build();
+        return new ReactiveBaseClient(web);
+    }
+
+    private static String read(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(response.getBody())
+                .map(buffer -> {
+                    String text = buffer.toString(StandardCharsets.UTF_8);
+                    DataBufferUtils.release(buffer);
+                    return text;
+                })
+                .block();
+    }
+}
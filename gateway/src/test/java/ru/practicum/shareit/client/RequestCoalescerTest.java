@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Лидер держит запрос, пока все остальные потоки не встанут к нему в ожидание:
+ * это видно по счётчику follower, который увеличивается до join
+ */
+public class RequestCoalescerTest {
+
+    private static final int WAITERS = 4;
+    private static final String KEY = "GET /items/1 user=1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentRequestsTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object response = new Object();
+
+        List<CompletableFuture<Object>> results = runConcurrently(() -> {
+            calls.incrementAndGet();
+            await(release);
+            return response;
+        }, release);
+
+        for (CompletableFuture<Object> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), sameInstance(response));
+        }
+        assertThat(calls.get(), equalTo(1));
+        assertThat(count("leader"), equalTo(1.0));
+        assertThat(count("follower"), equalTo((double) WAITERS));
+    }
+
+    @Test
+    void shouldPassFailureToEveryWaiterTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Server is unavailable");
+
+        List<CompletableFuture<Object>> results = runConcurrently(() -> {
+            await(release);
+            throw failure;
+        }, release);
+
+        for (CompletableFuture<Object> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertThat(e.getCause(), sameInstance(failure));
+        }
+    }
+
+    @Test
+    void shouldForgetKeyAfterCompletionTest() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute(KEY, calls::incrementAndGet);
+        coalescer.execute(KEY, calls::incrementAndGet);
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(KEY, () -> {
+            throw new IllegalStateException("Server is unavailable");
+        }));
+        Object afterFailure = coalescer.execute(KEY, calls::incrementAndGet);
+
+        assertThat(afterFailure, instanceOf(Integer.class));
+        assertThat(calls.get(), equalTo(3));
+        assertThat(count("leader"), equalTo(4.0));
+        assertThat(count("follower"), equalTo(0.0));
+    }
+
+    /**
+     * Запускает лидера и WAITERS последователей с одним ключом; release открывается, когда все последователи ждут
+     */
+    private List<CompletableFuture<Object>> runConcurrently(Supplier<Object> request, CountDownLatch release)
+            throws InterruptedException, TimeoutException {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> coalescer.execute(KEY, () -> {
+            leaderStarted.countDown();
+            return request.get();
+        }), executor));
+        if (!leaderStarted.await(5, TimeUnit.SECONDS)) {
+            throw new TimeoutException("Leader did not start");
+        }
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> coalescer.execute(KEY, () -> {
+                throw new AssertionError("Follower must not call the server");
+            }), executor));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("follower") < WAITERS) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Followers did not join the leader");
+            }
+            Thread.sleep(5);
+        }
+        release.countDown();
+        return results;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("gateway.coalescing.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Request was not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
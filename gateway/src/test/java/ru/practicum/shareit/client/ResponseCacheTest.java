@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Время кэша задаётся вручную через ticker, поэтому истечение TTL проверяется без ожидания
+ */
+public class ResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache<String> cache = new ResponseCache<>("test", 100, TTL, meterRegistry, nanos::get);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void shouldServeRepeatedRequestFromCacheTest() {
+        ResponseEntity<String> first = cache.get("item:1:1", () -> respond(HttpStatus.OK));
+        ResponseEntity<String> second = cache.get("item:1:1", () -> respond(HttpStatus.OK));
+
+        assertThat(second, sameInstance(first));
+        assertThat(calls.get(), equalTo(1));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "test").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void shouldRequestAgainAfterTtlTest() {
+        cache.get("item:1:1", () -> respond(HttpStatus.OK));
+        nanos.addAndGet(TTL.minusSeconds(1).toNanos());
+        cache.get("item:1:1", () -> respond(HttpStatus.OK));
+        assertThat(calls.get(), equalTo(1));
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        cache.get("item:1:1", () -> respond(HttpStatus.OK));
+
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldNotCacheErrorResponseTest() {
+        cache.get("item:1:1", () -> respond(HttpStatus.NOT_FOUND));
+        ResponseEntity<String> response = cache.get("item:1:1", () -> respond(HttpStatus.OK));
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(calls.get(), equalTo(2));
+    }
+
+    @Test
+    void shouldInvalidateOnlyKeysWithPrefixTest() {
+        cache.get("item:1:1", () -> respond(HttpStatus.OK));
+        cache.get("item:1:2", () -> respond(HttpStatus.OK));
+        cache.get("item:10:1", () -> respond(HttpStatus.OK));
+
+        cache.invalidatePrefix("item:1:");
+        cache.get("item:1:1", () -> respond(HttpStatus.OK));
+        cache.get("item:1:2", () -> respond(HttpStatus.OK));
+        cache.get("item:10:1", () -> respond(HttpStatus.OK));
+
+        assertThat(calls.get(), equalTo(5));
+    }
+
+    @Test
+    void shouldCallServerOnlyOnMissForAsyncRequestTest() {
+        cache.getAsync("search:1:0:10:drill", () -> Mono.fromSupplier(() -> respond(HttpStatus.OK))).block();
+        cache.getAsync("search:1:0:10:drill", () -> Mono.fromSupplier(() -> respond(HttpStatus.OK))).block();
+
+        assertThat(calls.get(), equalTo(1));
+    }
+
+    private ResponseEntity<String> respond(HttpStatus status) {
+        return ResponseEntity.status(status).body("response" + calls.incrementAndGet());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.error;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.main.web-application-type=servlet")
+public class ServletUnavailableServerErrorTest extends UnavailableServerErrorTest {
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.error;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Одни и те же запросы к шлюзу при недоступном сервере: оба режима должны отвечать одинаковыми статусами.
+ * Режим задаёт свойство spring.main.web-application-type в наследниках
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.url=http://localhost:1")
+@AutoConfigureWebTestClient
+abstract class UnavailableServerErrorTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenServerIsDownTest() {
+        client.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody().jsonPath("$.error").exists();
+        client.get().uri("/items/export")
+                .header(OWNER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void shouldRejectInvalidRequestsWithoutServerTest() {
+        client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"user\",\"email\":\"wrong\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/items")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/items/search?text=drill&size=0")
+                .header(OWNER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/bookings?state=UNKNOWN")
+                .header(OWNER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.twice;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Число ожидаемых запросов к серверу показывает, какие ответы взяты из кэша
+ */
+public class ItemClientTest {
+
+    private static final String ITEM_URL = "http://server/items/1";
+    private static final String SEARCH_URL = "http://server/items/search?text=drill&from=0&size=10";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemClient client = new ItemClient("http://server", 100, Duration.ofMinutes(1),
+            new RestTemplateBuilder(customizer),
+            new RequestCoalescer(meterRegistry),
+            new ClientResilience(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), meterRegistry),
+            meterRegistry);
+    private final MockRestServiceServer server = customizer.getServer();
+
+    @Test
+    void shouldServeRepeatedSearchFromCacheTest() {
+        server.expect(once(), requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        client.search(1L, "drill", 0, 10);
+        client.search(1L, "drill", 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldNotShareSearchBetweenUsersTest() {
+        server.expect(requestTo(SEARCH_URL))
+                .andExpect(header(OWNER_ID_HEADER, "1"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andExpect(header(OWNER_ID_HEADER, "2"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        client.search(1L, "drill", 0, 10);
+        client.search(2L, "drill", 0, 10);
+        client.search(2L, "drill", 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldInvalidateSearchAfterAddItemTest() {
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://server/items")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        client.search(1L, "drill", 0, 10);
+        client.addItem(1L, new ItemDto());
+        client.search(1L, "drill", 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldInvalidateItemAndSearchAfterUpdateTest() {
+        server.expect(requestTo(ITEM_URL))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ITEM_URL)).andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(twice(), requestTo(ITEM_URL)).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        client.getById(1L, 1L);
+        client.search(1L, "drill", 0, 10);
+        client.update(1L, 1L, new ItemDto());
+        client.getById(1L, 1L);
+        client.getById(1L, 2L);
+        client.getById(1L, 1L);
+        client.search(1L, "drill", 0, 10);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldInvalidateItemAfterAddCommentTest() {
+        server.expect(requestTo(ITEM_URL))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(once(), requestTo(SEARCH_URL))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ITEM_URL + "/comment")).andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ITEM_URL))
+                .andRespond(withSuccess("{\"id\":1,\"comments\":[{\"id\":1}]}", MediaType.APPLICATION_JSON));
+
+        client.getById(1L, 1L);
+        client.search(1L, "drill", 0, 10);
+        client.addComment(1L, 1L, new CommentDto());
+        client.getById(1L, 1L);
+        client.search(1L, "drill", 0, 10);
+
+        server.verify();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.error.ServiceUnavailableException;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Лимитер на одно разрешение без очереди: занятое разрешение сразу видно по отказу следующего запроса
+ */
+public class AdmissionInterceptorTest {
+
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 0, Duration.ZERO, new SimpleMeterRegistry());
+    private final AdmissionInterceptor interceptor = new AdmissionInterceptor(limiter);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final Object handler = new Object();
+
+    @Test
+    void shouldReleasePermitAfterExceptionTest() throws InterruptedException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+
+        assertThat(interceptor.preHandle(request, response, handler), is(true));
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("GET", "/items"), response, handler));
+        interceptor.afterCompletion(request, response, handler, new IllegalStateException("Handler failed"));
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(false));
+    }
+
+    @Test
+    void shouldHoldPermitUntilAsyncDispatchCompletesTest() throws InterruptedException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/export");
+        request.setAsyncSupported(true);
+
+        assertThat(interceptor.preHandle(request, response, handler), is(true));
+        request.startAsync();
+        interceptor.afterCompletion(request, response, handler, null);
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("GET", "/items"), response, handler));
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(interceptor.preHandle(request, response, handler), is(true));
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(false));
+    }
+
+    @Test
+    void shouldNotReleaseRejectedRequestTest() throws InterruptedException {
+        MockHttpServletRequest admitted = new MockHttpServletRequest("GET", "/items");
+        MockHttpServletRequest rejected = new MockHttpServletRequest("GET", "/items");
+        interceptor.preHandle(admitted, response, handler);
+
+        assertThrows(ServiceUnavailableException.class, () -> interceptor.preHandle(rejected, response, handler));
+        interceptor.afterCompletion(rejected, response, handler, null);
+
+        assertThat(limiter.tryAcquire(), is(false));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRejectAfterQueueTimeoutTest() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, Duration.ofMillis(100), meterRegistry);
+        assertThat(limiter.tryAcquire(), is(true));
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(), is(false));
+
+        assertThat(System.nanoTime() - start, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertThat(rejected(), equalTo(1.0));
+        assertThat(queued(), equalTo(0.0));
+    }
+
+    @Test
+    void shouldShedRequestsBeyondMaxQueueTest() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, Duration.ofSeconds(10), meterRegistry);
+        assertThat(limiter.tryAcquire(), is(true));
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> acquire(limiter));
+        awaitQueued(1);
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(), is(false));
+        assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(1)));
+        assertThat(rejected(), equalTo(1.0));
+
+        limiter.release();
+        assertThat(waiting.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(inFlight(), equalTo(1.0));
+    }
+
+    @Test
+    void shouldAdmitAfterReleaseTest() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 0, Duration.ZERO, meterRegistry);
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(inFlight(), equalTo(2.0));
+        assertThat(limiter.tryAcquire(), is(false));
+
+        limiter.release();
+
+        assertThat(inFlight(), equalTo(1.0));
+        assertThat(limiter.tryAcquire(), is(true));
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queued() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Request was not queued");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean acquire(ConcurrencyLimiter limiter) {
+        try {
+            return limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private double rejected() {
+        return meterRegistry.get("gateway.admission.rejected").counter().count();
+    }
+
+    private double queued() {
+        return meterRegistry.get("gateway.admission.queued").gauge().value();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.admission.in-flight").gauge().value();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.error.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+public class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Бронирования: 1 запрос в 2 секунды с запасом 2, поиск: 1 запрос в 2 секунды без запаса, остальное почти не ограничено
+     */
+    private final RateLimiter rateLimiter = new RateLimiter(100, Duration.ofMinutes(10),
+            0.5, 2, 0.5, 1, 1_000, 1_000, meterRegistry);
+
+    @Test
+    void shouldLimitEachUserAndGroupSeparatelyTest() {
+        assertThat(rateLimiter.tryAcquire(1L, EndpointGroup.BOOKINGS), equalTo(0L));
+        assertThat(rateLimiter.tryAcquire(1L, EndpointGroup.BOOKINGS), equalTo(0L));
+
+        long wait = rateLimiter.tryAcquire(1L, EndpointGroup.BOOKINGS);
+        assertThat(wait, greaterThan(0L));
+        assertThat(wait, lessThanOrEqualTo(TimeUnit.SECONDS.toNanos(2)));
+
+        assertThat(rateLimiter.tryAcquire(2L, EndpointGroup.BOOKINGS), equalTo(0L));
+        assertThat(rateLimiter.tryAcquire(1L, EndpointGroup.SEARCH), equalTo(0L));
+        assertThat(rateLimiter.tryAcquire(1L, EndpointGroup.DEFAULT), equalTo(0L));
+    }
+
+    @Test
+    void shouldCountRejectedRequestsByGroupTest() {
+        rateLimiter.tryAcquire(1L, EndpointGroup.SEARCH);
+        rateLimiter.tryAcquire(1L, EndpointGroup.SEARCH);
+        rateLimiter.tryAcquire(1L, EndpointGroup.SEARCH);
+
+        assertThat(rejected("search"), equalTo(2.0));
+        assertThat(rejected("bookings"), equalTo(0.0));
+    }
+
+    @Test
+    void shouldReportRetryAfterInWholeSecondsTest() {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+        request.addHeader(OWNER_ID_HEADER, "1");
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()), is(true));
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        assertThat(e.getRetryAfterSeconds(), equalTo(2L));
+    }
+
+    @Test
+    void shouldNotLimitRequestsWithoutUserTest() {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()), is(true));
+        }
+        assertThat(rejected("search"), equalTo(0.0));
+    }
+
+    private double rejected(String group) {
+        return meterRegistry.get("gateway.rate-limit.rejected").tag("group", group).counter().count();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_000);
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TokenBucket bucket = new TokenBucket(10, 3);
+
+    @Test
+    void shouldAllowBurstThenRejectTest() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(START), equalTo(0L));
+        }
+
+        assertThat(bucket.tryAcquire(START), equalTo(INTERVAL));
+        assertThat(bucket.tryAcquire(START + INTERVAL / 4), equalTo(INTERVAL * 3 / 4));
+    }
+
+    @Test
+    void shouldRefillOneTokenPerIntervalTest() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(START);
+        }
+
+        assertThat(bucket.tryAcquire(START + INTERVAL), equalTo(0L));
+        assertThat(bucket.tryAcquire(START + INTERVAL), equalTo(INTERVAL));
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL), equalTo(0L));
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL), equalTo(0L));
+        assertThat(bucket.tryAcquire(START + 3 * INTERVAL), equalTo(INTERVAL));
+    }
+
+    @Test
+    void shouldNotAccumulateMoreThanBurstWhenIdleTest() {
+        bucket.tryAcquire(START);
+        long later = START + TimeUnit.MINUTES.toNanos(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later), equalTo(0L));
+        }
+        assertThat(bucket.tryAcquire(later), equalTo(INTERVAL));
+    }
+}
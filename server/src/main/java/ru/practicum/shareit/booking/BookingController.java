@@ -2,17 +2,24 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.constant.State;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import java.util.List;
 
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -27,6 +34,13 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingDtoIn);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> addBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                @RequestBody List<BookingDtoIn> bookingDtoIns) {
+        log.info("Поступил запрос на оформление {} аренд от пользователя с id: {}", bookingDtoIns.size(), userId);
+        return bookingService.addBookings(userId, bookingDtoIns);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDtoOut getBookingById(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                         @PathVariable Long bookingId) {
@@ -55,6 +69,39 @@ public class BookingController {
         return bookingService.getAllBookingsForAllItemsByOwner(userId, state, from, size);
     }
 
+    @GetMapping(params = "cursor")
+    public CursorPage<BookingDtoOut> getBookingsByUserAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                  @RequestParam(required = false, defaultValue = "ALL")
+                                                                      State state,
+                                                                  @RequestParam String cursor,
+                                                                  @RequestParam(required = false, defaultValue = "20")
+                                                                      @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд от пользователя с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingService.getBookingsByUserAfterCursor(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public CursorPage<BookingDtoOut> getBookingsByOwnerAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                   @RequestParam(required = false,
+                                                                           defaultValue = "ALL") State state,
+                                                                   @RequestParam String cursor,
+                                                                   @RequestParam(required = false,
+                                                                           defaultValue = "20")
+                                                                       @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на просмотр {} аренд вещей владельца с id: {} после курсора: {}",
+                state, userId, cursor);
+        return bookingService.getBookingsByOwnerAfterCursor(userId, state, cursor, size);
+    }
+
+    @PatchMapping
+    public List<BookingBatchResult> updateBookings(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                   @RequestParam Boolean approved,
+                                                   @RequestBody List<Long> bookingIds) {
+        log.info("Поступил запрос на обновление статуса аренд с id: {}", bookingIds);
+        return bookingService.updateBookings(userId, bookingIds, approved);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDtoOut updateBooking(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                        @PathVariable Long bookingId,
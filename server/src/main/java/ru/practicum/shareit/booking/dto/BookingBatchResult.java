@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Результат одной записи пакетного оформления или подтверждения аренд: index - её позиция в запросе,
+ * booking заполнен для созданной или обновлённой аренды, error - для отклонённой
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResult {
+
+    private int index;
+
+    private HttpStatus status;
+
+    private BookingDtoOut booking;
+
+    private String error;
+
+    public static BookingBatchResult created(int index, BookingDtoOut booking) {
+        return new BookingBatchResult(index, HttpStatus.CREATED, booking, null);
+    }
+
+    public static BookingBatchResult updated(int index, BookingDtoOut booking) {
+        return new BookingBatchResult(index, HttpStatus.OK, booking, null);
+    }
+
+    public static BookingBatchResult failed(int index, HttpStatus status, String error) {
+        return new BookingBatchResult(index, status, null, error);
+    }
+}
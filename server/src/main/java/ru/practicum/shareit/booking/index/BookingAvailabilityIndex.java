@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.constant.Status;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс занятости вещей по аренде в статусах WAITING и APPROVED.
+ * Строится из таблицы bookings при старте и обновляется вместе с записью аренды.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+
+    public static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        timelines.clear();
+        List<BookingInterval> intervals = bookingRepository.findAllIntervalsByStatusIn(BLOCKING_STATUSES);
+        for (BookingInterval interval : intervals) {
+            timeline(interval.getItemId())
+                    .add(interval.getId(), toMicros(interval.getStart()), toMicros(interval.getEnd()));
+        }
+        log.info("Booking availability index rebuilt: {} bookings for {} items.", intervals.size(), timelines.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline == null || !timeline.overlaps(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Свободные окна вещи внутри [from, to) в порядке времени
+     */
+    public List<FreeInterval> getFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return List.of(new FreeInterval(from, to));
+        }
+        long[] windows = timeline.freeWindows(toMicros(from), toMicros(to));
+        List<FreeInterval> intervals = new ArrayList<>(windows.length / 2);
+        for (int i = 0; i < windows.length; i += 2) {
+            intervals.add(new FreeInterval(fromMicros(windows[i]), fromMicros(windows[i + 1])));
+        }
+        return intervals;
+    }
+
+    /**
+     * Атомарно проверяет окно [start, end) и занимает его под аренду.
+     * При откате текущей транзакции бронь снимается.
+     */
+    public boolean tryReserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timeline(itemId);
+        if (!timeline.addIfFree(bookingId, toMicros(start), toMicros(end))) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        timeline.remove(bookingId);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Освобождает окно аренды после фиксации текущей транзакции.
+     */
+    public void release(Long itemId, Long bookingId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(itemId, bookingId);
+                }
+            });
+        } else {
+            remove(itemId, bookingId);
+        }
+    }
+
+    /**
+     * Освобождает окна нескольких аренд после фиксации текущей транзакции
+     */
+    public void releaseAll(Collection<BookingInterval> intervals) {
+        if (intervals.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    intervals.forEach(interval -> remove(interval.getItemId(), interval.getId()));
+                }
+            });
+        } else {
+            intervals.forEach(interval -> remove(interval.getItemId(), interval.getId()));
+        }
+    }
+
+    private void remove(Long itemId, Long bookingId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            timeline.remove(bookingId);
+        }
+    }
+
+    private ItemTimeline timeline(Long itemId) {
+        return timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
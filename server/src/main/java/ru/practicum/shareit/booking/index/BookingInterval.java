@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+
+    private final Long id;
+
+    private final Long itemId;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class FreeInterval {
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+}
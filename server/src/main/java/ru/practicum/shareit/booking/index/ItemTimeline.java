@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.index;
+
+import java.util.Arrays;
+
+/**
+ * Интервалы аренды одной вещи, отсортированные по началу.
+ * Массив maxEnds хранит префиксный максимум окончаний, поэтому проверка пересечения
+ * сводится к одному бинарному поиску.
+ */
+final class ItemTimeline {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] maxEnds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized boolean overlaps(long start, long end) {
+        int count = countStartingBefore(end);
+        return count > 0 && maxEnds[count - 1] > start;
+    }
+
+    synchronized boolean addIfFree(long id, long start, long end) {
+        if (overlaps(start, end)) {
+            return false;
+        }
+        add(id, start, end);
+        return true;
+    }
+
+    synchronized void add(long id, long start, long end) {
+        ensureCapacity(size + 1);
+        int pos = countStartingBefore(start + 1);
+        int tail = size - pos;
+        System.arraycopy(ids, pos, ids, pos + 1, tail);
+        System.arraycopy(starts, pos, starts, pos + 1, tail);
+        System.arraycopy(ends, pos, ends, pos + 1, tail);
+        ids[pos] = id;
+        starts[pos] = start;
+        ends[pos] = end;
+        size++;
+        recomputeMaxEnds(pos);
+    }
+
+    synchronized boolean remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                int tail = size - i - 1;
+                System.arraycopy(ids, i + 1, ids, i, tail);
+                System.arraycopy(starts, i + 1, starts, i, tail);
+                System.arraycopy(ends, i + 1, ends, i, tail);
+                size--;
+                recomputeMaxEnds(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Свободные окна внутри [from, to) парами (начало, конец). Интервалы до первого с maxEnds > from
+     * отсекаются бинарным поиском, поэтому время зависит от числа аренд в окне, а не от всей истории.
+     */
+    synchronized long[] freeWindows(long from, long to) {
+        int first = countEndingBefore(from + 1);
+        int last = countStartingBefore(to);
+        long[] windows = new long[2 * (Math.max(last - first, 0) + 1)];
+        int count = 0;
+        long cursor = from;
+        for (int i = first; i < last; i++) {
+            if (starts[i] > cursor) {
+                windows[count++] = cursor;
+                windows[count++] = starts[i];
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            windows[count++] = cursor;
+            windows[count++] = to;
+        }
+        return Arrays.copyOf(windows, count);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Количество интервалов, начинающихся строго раньше time.
+     */
+    private int countStartingBefore(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Количество первых интервалов, у которых префиксный максимум окончаний меньше time.
+     */
+    private int countEndingBefore(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void recomputeMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int newCapacity = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newCapacity);
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            maxEnds = Arrays.copyOf(maxEnds, newCapacity);
+        }
+    }
+}
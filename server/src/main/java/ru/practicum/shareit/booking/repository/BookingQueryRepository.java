@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Один select с join fetch вещи, её владельца и арендатора, без отдельного count-запроса.
+     */
+    List<Booking> findAll(Specification<Booking> specification, Sort sort, long offset, int limit);
+}
@@ -1,44 +1,49 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.constant.Status;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findByBooker_IdOrderByEndDesc(Long bookerId, Pageable pageable);
-
-    List<Booking> findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(Long bookerId,
-                                                                             LocalDateTime start,
-                                                                             LocalDateTime end,
-                                                                             Pageable pageable);
-
-    List<Booking> findByBooker_IdAndEndIsBefore(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findByBooker_IdAndStartIsAfter(Long bookerId, LocalDateTime time, Pageable pageable);
-
-    List<Booking> findByBooker_IdAndStatusOrderByEndDesc(Long bookerId, Status status, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerId(Long ownerId, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(Long ownerId, LocalDateTime start,
-                                                                                   LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerIdAndStartIsBeforeAndEndIsBeforeOrderByEndDesc(Long ownerId, LocalDateTime start,
-                                                                                    LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerIdAndStartIsAfterAndEndIsAfterOrderByEndDesc(Long ownerId, LocalDateTime start,
-                                                                                  LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerIdAndStatus(Long ownerId, Status status, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long bookingId);
+
+    /**
+     * Блокирует строки аренд до конца транзакции, чтобы статусы не изменились до массового обновления.
+     * Запрос без join: PostgreSQL не разрешает FOR UPDATE для nullable-стороны outer join,
+     * поэтому связи загружаются отдельно через findAllByIdIn
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id in ?1")
+    List<Booking> findAllLockedByIdIn(Collection<Long> bookingIds);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findAllByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Меняет статус только тех аренд из списка, которые ожидают подтверждения и принадлежат вещам владельца
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id in ?1 " +
+            "and b.status = ru.practicum.shareit.constant.Status.WAITING " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateWaitingStatusByOwner(Collection<Long> bookingIds, Long ownerId, Status status);
 
     Optional<Booking> findFirstByItemIdAndStatusAndStartIsBefore(Long itemId, Status status,
                                                                  LocalDateTime time, Sort sort);
@@ -46,8 +51,40 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Optional<Booking> findFirstByItemIdAndStatusAndStartIsAfter(Long itemId, Status status,
                                                                 LocalDateTime time, Sort sort);
 
-    List<Booking> findAllByItem_IdIn(List<Long> ids);
+    /**
+     * Для каждой из вещей - последняя завершившаяся (по end) и ближайшая будущая (по start)
+     * подтверждённая аренда, не больше двух строк на вещь.
+     */
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.end_date < ?2) as last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, start_date, end_date, item_id, booker_id, status from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from bookings b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.start_date > ?2) as next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIdIn(List<Long> itemIds, LocalDateTime now);
 
     List<Booking> findAllByBooker_IdAndItem_IdAndStartIsBeforeAndEndIsBefore(Long bookerId, Long itemId,
                                                                              LocalDateTime time, LocalDateTime time2);
-}
\ No newline at end of file
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b " +
+            "where b.status in ?1")
+    List<BookingInterval> findAllIntervalsByStatusIn(Collection<Status> statuses);
+
+    /**
+     * Аренды, которые каскад в БД удалит вместе с пользователем: его собственные, аренды его вещей
+     * и аренды вещей-ответов на его заявки. Заявка присоединяется через left join, иначе неявный inner join
+     * отбросил бы вещи без заявки
+     */
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(b.id, i.id, b.start, b.end) " +
+            "from Booking b " +
+            "join b.item i " +
+            "left join i.request r " +
+            "where b.status in ?2 and (b.booker.id = ?1 or i.owner.id = ?1 or r.requester.id = ?1)")
+    List<BookingInterval> findAllIntervalsByUserIdAndStatusIn(Long userId, Collection<Status> statuses);
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constant.State;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.error.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
+/**
+ * Фильтры для {@link BookingQueryRepository}. Комбинируются через {@link Specification#and}.
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byOwner(Long ownerId) {
+        return (root, query, builder) -> builder.equal(item(root).get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> byItem(Long itemId) {
+        return (root, query, builder) -> builder.equal(item(root).get("id"), itemId);
+    }
+
+    /**
+     * Аренды, пересекающиеся с периодом [from, to).
+     */
+    public static Specification<Booking> overlapping(LocalDateTime from, LocalDateTime to) {
+        return (root, query, builder) -> builder.and(
+                builder.lessThan(root.get("start"), to),
+                builder.greaterThan(root.get("end"), from));
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return (root, query, builder) -> builder.conjunction();
+            case CURRENT:
+                return (root, query, builder) -> builder.and(
+                        builder.lessThan(root.get("start"), now),
+                        builder.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, builder) -> builder.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, builder) -> builder.greaterThan(root.get("start"), now);
+            case WAITING:
+                return withStatus(Status.WAITING);
+            case REJECTED:
+                return withStatus(Status.REJECTED);
+            default:
+                throw new BadRequestException("Unknown state: " + state);
+        }
+    }
+
+    public static Specification<Booking> withStatus(Status status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    /**
+     * Keyset-условие для порядка (start desc, id desc). Пустой курсор не ограничивает выборку.
+     */
+    public static Specification<Booking> beforeCursor(Cursor cursor) {
+        if (cursor == null) {
+            return (root, query, builder) -> builder.conjunction();
+        }
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getSortKey()),
+                builder.and(
+                        builder.equal(root.get("start"), cursor.getSortKey()),
+                        builder.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    /**
+     * Переиспользует join fetch вещи, чтобы фильтр по ней не добавлял второй join.
+     */
+    @SuppressWarnings("unchecked")
+    private static From<Booking, Item> item(Root<Booking> root) {
+        return root.getFetches().stream()
+                .filter(fetch -> fetch.getAttribute().getName().equals("item"))
+                .map(fetch -> (From<Booking, Item>) fetch)
+                .findFirst()
+                .orElseGet(() -> root.join("item"));
+    }
+}
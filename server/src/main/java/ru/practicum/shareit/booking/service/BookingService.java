@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.constant.State;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -10,11 +12,19 @@ public interface BookingService {
 
     BookingDtoOut addBooking(Long userId, BookingDtoIn bookingDtoIn);
 
+    List<BookingBatchResult> addBookings(Long userId, List<BookingDtoIn> bookingDtoIns);
+
     BookingDtoOut getBookingById(Long userId, Long bookingId);
 
     List<BookingDtoOut> getAllBookingsByUser(Long userId, State state, int from, int size);
 
     List<BookingDtoOut> getAllBookingsForAllItemsByOwner(Long userId, State state, int from, int size);
 
+    CursorPage<BookingDtoOut> getBookingsByUserAfterCursor(Long userId, State state, String cursor, int size);
+
+    CursorPage<BookingDtoOut> getBookingsByOwnerAfterCursor(Long userId, State state, String cursor, int size);
+
     BookingDtoOut updateBooking(Long userId, Long bookingId, Boolean status);
+
+    List<BookingBatchResult> updateBookings(Long userId, List<Long> bookingIds, Boolean status);
 }
\ No newline at end of file
@@ -2,26 +2,37 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.constant.State;
 import ru.practicum.shareit.constant.Status;
 import ru.practicum.shareit.error.BadRequestException;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+import static ru.practicum.shareit.constant.Constant.BOOKING_BATCH_MAX_SIZE;
 
 @Slf4j
 @Service
@@ -29,9 +40,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
 
     @Transactional
     @Override
@@ -39,19 +53,80 @@ public class BookingServiceImpl implements BookingService {
         validateBooking(bookingDtoIn);
         Item item = itemRepository.findById(bookingDtoIn.getItemId())
                 .orElseThrow(() -> new NotFoundException("Item not found."));
-        if (item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("You can't rent your own item.");
-        }
-        if (item.getAvailable().equals(false)) {
-            throw new BadRequestException("Item is not available.");
-        }
+        validateItem(userId, item);
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
         bookingDtoIn.setStatus(Status.WAITING);
         Booking booking = bookingRepository.save(BookingMapper.INSTANCE.toBooking(bookingDtoIn, user, item));
+        if (!availabilityIndex.tryReserve(item.getId(), booking.getId(), booking.getStart(), booking.getEnd())) {
+            throw new ConflictException("Item is already booked for these dates.");
+        }
         log.info("Booking successfully added!");
         return BookingMapper.INSTANCE.toBookingDtoOut(booking);
     }
 
+    /**
+     * Все записи проверяются по загруженным одним запросом вещам и сохраняются в одной транзакции.
+     * Ошибка в записи не отменяет остальные: она попадает в результат с тем же статусом,
+     * что вернул бы одиночный POST /bookings
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResult> addBookings(Long userId, List<BookingDtoIn> bookingDtoIns) {
+        if (bookingDtoIns.isEmpty() || bookingDtoIns.size() > BOOKING_BATCH_MAX_SIZE) {
+            throw new BadRequestException("Error! Batch must contain from 1 to " + BOOKING_BATCH_MAX_SIZE
+                    + " bookings.");
+        }
+        User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
+        Set<Long> itemIds = bookingDtoIns.stream()
+                .map(BookingDtoIn::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingDtoIns.size()];
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < bookingDtoIns.size(); i++) {
+            BookingDtoIn bookingDtoIn = bookingDtoIns.get(i);
+            try {
+                validateBooking(bookingDtoIn);
+                Item item = items.get(bookingDtoIn.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Item not found.");
+                }
+                validateItem(userId, item);
+                bookingDtoIn.setStatus(Status.WAITING);
+                bookings.add(BookingMapper.INSTANCE.toBooking(bookingDtoIn, user, item));
+                indexes.add(i);
+            } catch (NotFoundException e) {
+                results[i] = BookingBatchResult.failed(i, HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (BadRequestException e) {
+                results[i] = BookingBatchResult.failed(i, HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        List<Booking> conflicting = new ArrayList<>();
+        for (int j = 0; j < saved.size(); j++) {
+            Booking booking = saved.get(j);
+            int i = indexes.get(j);
+            if (availabilityIndex.tryReserve(booking.getItem().getId(), booking.getId(),
+                    booking.getStart(), booking.getEnd())) {
+                results[i] = BookingBatchResult.created(i, BookingMapper.INSTANCE.toBookingDtoOut(booking));
+            } else {
+                conflicting.add(booking);
+                results[i] = BookingBatchResult.failed(i, HttpStatus.CONFLICT,
+                        "Item is already booked for these dates.");
+            }
+        }
+        if (!conflicting.isEmpty()) {
+            bookingRepository.deleteAllInBatch(conflicting);
+        }
+        log.info("Batch of {} bookings processed: {} added.", results.length, saved.size() - conflicting.size());
+        return Arrays.asList(results);
+    }
+
     @Override
     public BookingDtoOut getBookingById(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -67,37 +142,8 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDtoOut> getAllBookingsByUser(Long userId, State state, int from, int size) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findByBooker_IdOrderByEndDesc(userId,
-                        PageRequest.of(from / size, size));
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                        userId, now, now,
-                        PageRequest.of(from / size, size));
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBooker_IdAndEndIsBefore(userId, now,
-                        PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBooker_IdAndStartIsAfter(userId, now,
-                        PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBooker_IdAndStatusOrderByEndDesc(userId, Status.WAITING,
-                        PageRequest.of(from / size, size));
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBooker_IdAndStatusOrderByEndDesc(userId, Status.REJECTED,
-                        PageRequest.of(from / size, size));
-                break;
-            default:
-                throw new BadRequestException("Unknown state: " + state);
-        }
+        List<Booking> bookings = bookingRepository.findAll(
+                byBooker(userId).and(inState(state, LocalDateTime.now())), SORT_BY_START_DESC, from, size);
         log.info("Success! Your booking list by state: {} are : {}", state, bookings);
         return BookingMapper.INSTANCE.toBookingDtoOutList(bookings);
     }
@@ -105,46 +151,28 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDtoOut> getAllBookingsForAllItemsByOwner(Long userId, State state, int from, int size) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItem_OwnerId(
-                        userId, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItem_OwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                        userId, now, now, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItem_OwnerIdAndStartIsBeforeAndEndIsBeforeOrderByEndDesc(
-                        userId, now, now, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItem_OwnerIdAndStartIsAfterAndEndIsAfterOrderByEndDesc(
-                        userId, now, now, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItem_OwnerIdAndStatus(
-                        userId, Status.WAITING, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItem_OwnerIdAndStatus(
-                        userId, Status.REJECTED, PageRequest.of(from / size, size,
-                                Sort.by(Sort.Direction.DESC, "start")));
-                break;
-            default:
-                throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
-        }
+        List<Booking> bookings = bookingRepository.findAll(
+                byOwner(userId).and(inState(state, LocalDateTime.now())), SORT_BY_START_DESC, from, size);
         log.info("Success! Your booking list by state: {} are : {}", state, bookings);
         return BookingMapper.INSTANCE.toBookingDtoOutList(bookings);
     }
 
+    @Override
+    public CursorPage<BookingDtoOut> getBookingsByUserAfterCursor(Long userId, State state, String cursor, int size) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
+        CursorPage<BookingDtoOut> page = findPageBeforeCursor(byBooker(userId), state, cursor, size);
+        log.info("Success! Your booking page by state: {} after cursor: {}", state, cursor);
+        return page;
+    }
+
+    @Override
+    public CursorPage<BookingDtoOut> getBookingsByOwnerAfterCursor(Long userId, State state, String cursor, int size) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
+        CursorPage<BookingDtoOut> page = findPageBeforeCursor(byOwner(userId), state, cursor, size);
+        log.info("Success! Owner booking page by state: {} after cursor: {}", state, cursor);
+        return page;
+    }
+
     @Transactional
     @Override
     public BookingDtoOut updateBooking(Long userId, Long bookingId, Boolean status) {
@@ -162,12 +190,99 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(Status.APPROVED);
         } else {
             booking.setStatus(Status.REJECTED);
+            availabilityIndex.release(item.getId(), booking.getId());
         }
         Booking updated = bookingRepository.save(booking);
         log.info("Success! Updated booking: {}", updated);
         return BookingMapper.INSTANCE.toBookingDtoOut(updated);
     }
 
+    /**
+     * Статус меняется одним UPDATE для всех подходящих аренд. Перед ним строки блокируются и проверяются,
+     * чтобы для каждого id вернуть тот же результат, что и одиночный PATCH /bookings/{bookingId}.
+     * Если UPDATE затронул не все проверенные строки, транзакция откатывается с 409
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResult> updateBookings(Long userId, List<Long> bookingIds, Boolean status) {
+        if (bookingIds.isEmpty() || bookingIds.size() > BOOKING_BATCH_MAX_SIZE) {
+            throw new BadRequestException("Error! Batch must contain from 1 to " + BOOKING_BATCH_MAX_SIZE
+                    + " bookings.");
+        }
+        Set<Long> ids = new HashSet<>(bookingIds);
+        bookingRepository.findAllLockedByIdIn(ids);
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Status newStatus = status ? Status.APPROVED : Status.REJECTED;
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingIds.size()];
+        Set<Long> updatable = new HashSet<>();
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = bookings.get(bookingIds.get(i));
+            if (booking == null) {
+                results[i] = BookingBatchResult.failed(i, HttpStatus.NOT_FOUND, "Booking not found.");
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                results[i] = BookingBatchResult.failed(i, HttpStatus.NOT_FOUND,
+                        "Error! You don't have permission to access this option." +
+                                " Only the owner of the item can update booking with it.");
+            } else if (!booking.getStatus().equals(Status.WAITING)) {
+                results[i] = BookingBatchResult.failed(i, HttpStatus.BAD_REQUEST,
+                        "This booking has already been updated to: " + booking.getStatus());
+            } else {
+                updatable.add(booking.getId());
+            }
+        }
+
+        if (!updatable.isEmpty()) {
+            int updated = bookingRepository.updateWaitingStatusByOwner(updatable, userId, newStatus);
+            if (updated != updatable.size()) {
+                throw new ConflictException("Bookings were changed concurrently, " + updated + " of "
+                        + updatable.size() + " could be updated. Please retry.");
+            }
+        }
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = bookings.get(bookingIds.get(i));
+            if (results[i] == null) {
+                booking.setStatus(newStatus);
+                results[i] = BookingBatchResult.updated(i, BookingMapper.INSTANCE.toBookingDtoOut(booking));
+            }
+        }
+        if (newStatus == Status.REJECTED) {
+            updatable.forEach(bookingId -> availabilityIndex.release(bookings.get(bookingId).getItem().getId(),
+                    bookingId));
+        }
+        log.info("Success! {} of {} bookings updated to: {}", updatable.size(), bookingIds.size(), newStatus);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Страница аренд в порядке (start desc, id desc), начиная сразу после курсора.
+     * Запрашивается на одну запись больше, чтобы понять, есть ли следующая страница.
+     */
+    private CursorPage<BookingDtoOut> findPageBeforeCursor(Specification<Booking> byUser, State state,
+                                                           String cursor, int size) {
+        Specification<Booking> specification = byUser
+                .and(inState(state, LocalDateTime.now()))
+                .and(beforeCursor(Cursor.decode(cursor)));
+        List<Booking> bookings = bookingRepository.findAll(specification, SORT_BY_START_DESC, 0, size + 1);
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            Booking last = bookings.get(size - 1);
+            nextCursor = new Cursor(last.getStart(), last.getId()).encode();
+        }
+        return new CursorPage<>(BookingMapper.INSTANCE.toBookingDtoOutList(bookings), nextCursor);
+    }
+
+    private void validateItem(Long userId, Item item) {
+        if (item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException("You can't rent your own item.");
+        }
+        if (item.getAvailable().equals(false)) {
+            throw new BadRequestException("Item is not available.");
+        }
+    }
+
     private void validateBooking(BookingDtoIn bookingDtoIn) {
         if (bookingDtoIn.getEnd().isBefore(bookingDtoIn.getStart())) {
             throw new BadRequestException("Error! Booking end time can't be before start time.");
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URISyntaxException;
+
+/**
+ * Кэш второго уровня Hibernate на Ehcache 3 (JCache), регионы и лимиты описаны в ehcache.xml.
+ * У каждого контекста свой CacheManager: общий для JVM провайдер JCache отдал бы один и тот же менеджер
+ * контекстам с разными базами (в тестах), и они читали бы сущности друг друга
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws URISyntaxException {
+        return new EhcacheCachingProvider().getCacheManager(getClass().getResource("/ehcache.xml").toURI(),
+                getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * После записи пользователь читает с основной базы, пока реплики не догонят её. Нулевое окно отключает привязку
+ */
+class ReadYourWritesWindow {
+
+    private final long windowNanos;
+    private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+
+    ReadYourWritesWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    void onWrite(Long userId) {
+        if (windowNanos > 0) {
+            deadlines.put(userId, System.nanoTime() + windowNanos);
+        }
+    }
+
+    boolean isSticky(Long userId) {
+        Long deadline = deadlines.get(userId);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+        deadlines.remove(userId, deadline);
+        return false;
+    }
+
+    void purgeExpired() {
+        long now = System.nanoTime();
+        deadlines.values().removeIf(deadline -> deadline - now <= 0);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.datasource;
+
+/**
+ * Признак того, что поток обслуживает HTTP-запрос, и пользователь из заголовка X-Sharer-User-Id.
+ * Только такие потоки читают с реплик: построение индексов при старте и прочая служебная работа идут в основную базу
+ */
+final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    static void enter(Long userId) {
+        CURRENT.set(new Request(userId));
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static Long getUserId() {
+        Request request = CURRENT.get();
+        return request == null ? null : request.userId;
+    }
+
+    private static final class Request {
+
+        private final Long userId;
+
+        private Request(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only транзакции HTTP-запросов читают с реплик по кругу, всё остальное идёт в основную базу.
+ * Реплики периодически проверяются; недоступная реплика пропускается до следующей успешной проверки,
+ * а при отказе всех реплик чтение уходит в основную базу.
+ * Соединение выбирается при первом запросе транзакции, поэтому источник нужно оборачивать
+ * в LazyConnectionDataSourceProxy: к этому моменту признак readOnly уже выставлен.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final Duration healthCheckInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckInterval,
+                                    Duration readYourWritesWindow) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.healthCheckInterval = healthCheckInterval;
+        this.readYourWritesWindow = new ReadYourWritesWindow(readYourWritesWindow);
+    }
+
+    public void startHealthChecks() {
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            replica.setHealthy(healthy);
+        }
+        readYourWritesWindow.purgeExpired();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            closeIfCloseable(replica.dataSource);
+        }
+        closeIfCloseable(primary);
+    }
+
+    /**
+     * Реплика для чтения или null, если читать нужно из основной базы
+     */
+    private Replica chooseReplica() {
+        if (!ReplicaRoutingContext.isActive() || replicas.isEmpty()) {
+            return null;
+        }
+        Long userId = ReplicaRoutingContext.getUserId();
+        if (userId != null && readYourWritesWindow.isSticky(userId)) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Выбирает основную базу или реплику и открывает соединение с ней; отказ реплики переключает чтение на основную
+     */
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWrite();
+            return opener.open(primary);
+        }
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            return opener.open(primary);
+        }
+        try {
+            return opener.open(replica.dataSource);
+        } catch (SQLException e) {
+            replica.setHealthy(false);
+            return opener.open(primary);
+        }
+    }
+
+    /**
+     * Запись пользователя открывает окно read-your-writes после фиксации транзакции
+     */
+    private void registerWrite() {
+        Long userId = ReplicaRoutingContext.getUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesWindow.onWrite(userId);
+            }
+        });
+    }
+
+    private static void closeIfCloseable(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void setHealthy(boolean healthy) {
+            if (this.healthy != healthy) {
+                if (healthy) {
+                    log.info("Replica {} is back, reads are routed to it again.", name);
+                } else {
+                    log.warn("Replica {} is unavailable, reads fall back to other replicas or the primary.", name);
+                }
+            }
+            this.healthy = healthy;
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto add(@RequestBody ItemDto itemDto,
@@ -42,15 +56,52 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDto> getOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+    public Collection<ItemDto> getOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                             @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                             @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         log.info("Поступил запрос на получение списка всех вещей пользователя с id: {}", userId);
-        return itemService.getOwnerItems(userId);
+        return itemService.getOwnerItems(userId, from, size);
+    }
+
+    /**
+     * Все вещи владельца в формате NDJSON: вещи читаются порциями по id,
+     * в памяти одновременно держится не больше одной порции
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOwnerItems(@RequestHeader(OWNER_ID_HEADER) Long userId) {
+        log.info("Поступил запрос на выгрузку всех вещей пользователя с id: {}", userId);
+        StreamingResponseBody body = out -> {
+            Long afterId = 0L;
+            List<ItemDto> chunk;
+            do {
+                chunk = itemService.getOwnerItemsAfter(userId, afterId, EXPORT_CHUNK_SIZE);
+                for (ItemDto itemDto : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(itemDto));
+                    out.write('\n');
+                    afterId = itemDto.getId();
+                }
+                out.flush();
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeIntervalDto> getAvailability(@PathVariable Long itemId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime to) {
+        log.info("Поступил запрос на получение свободных окон вещи с id: {} с {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> getItemsByKeyWord(@RequestParam String text) {
+    public Collection<ItemDto> getItemsByKeyWord(@RequestParam String text,
+                                                 @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
+                                                 @RequestParam(required = false, defaultValue = "20") @Min(1) int size) {
         log.info("Поступил запрос на поиск по тексту: {}", text);
-        return itemService.getItemsByKeyword(text);
+        return itemService.getItemsByKeyword(text, from, size);
     }
 
     @PatchMapping("/{itemId}")
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class FreeIntervalDto {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
@@ -5,8 +5,10 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.booking.dto.BookingDtoOwner;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOwner;
 import ru.practicum.shareit.item.model.Comment;
@@ -43,6 +45,8 @@ public interface ItemMapper {
 
     List<ItemDto> toItemDtoList(List<Item> items);
 
+    List<FreeIntervalDto> toFreeIntervalDtoList(List<FreeInterval> intervals);
+
     @Named("BookingToBookingDtoOwner")
     static BookingDtoOwner toBookingDtoOwner(Booking booking) {
         return BookingMapper.INSTANCE.toBookingDtoOwner(booking);
@@ -1,25 +1,74 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerId(Long userId, Sort sort);
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    Optional<Item> findById(Long itemId);
 
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllByOwnerId(Long userId, Pageable pageable);
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllByOwnerIdAndIdGreaterThan(Long userId, Long afterId, Pageable pageable);
+
+    /**
+     * Поиск подстроки в названии и описании. Выше те вещи, у которых совпадает название целиком,
+     * затем название с начала, затем где-то в названии, и в конце - только в описании.
+     * В PostgreSQL like по upper(...) обслуживают триграммные индексы из schema-postgresql.sql
+     */
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
     @Query("select i from Item i " +
             "where i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text);
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by case " +
+            "when upper(i.name) = upper(?1) then 0 " +
+            "when upper(i.name) like upper(concat(?1, '%')) then 1 " +
+            "when upper(i.name) like upper(concat('%', ?1, '%')) then 2 " +
+            "else 3 end, i.id")
+    List<Item> search(String text, Pageable pageable);
+
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description) " +
+            "from Item i " +
+            "where i.available = true " +
+            "order by i.id")
+    List<IndexedItem> findAllIndexed();
+
+    /**
+     * Вещи, которые каскад в БД удалит вместе с пользователем: его собственные и ответы на его заявки
+     */
+    @Query("select i.id from Item i " +
+            "left join i.request r " +
+            "where i.owner.id = ?1 or r.requester.id = ?1")
+    List<Long> findAllIdsCascadedWithUser(Long userId);
 
-    List<Item> findAllByRequestRequesterIdIn(List<Long> requesterIds);
+    /**
+     * Вещи-ответы на страницу заявок одним запросом по индексу request_id. Для ItemDto нужен только id заявки,
+     * он есть в самой вещи, поэтому ни заявка, ни владелец не присоединяются
+     */
+    @Query("select i from Item i where i.request.id in ?1")
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 
+    /**
+     * Условие по колонке request_id, а не по присоединённой заявке: иначе индекс по request_id не используется
+     */
+    @EntityGraph(Item.WITH_OWNER_AND_REQUEST)
+    @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequestId(Long requestId);
-}
\ No newline at end of file
+}
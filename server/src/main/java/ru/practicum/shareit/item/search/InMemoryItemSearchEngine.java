@@ -0,0 +1,330 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей в памяти процесса.
+ * Название и описание разбиваются на термины в нижнем регистре; для каждого термина хранится
+ * отсортированный список id вещей, а для поиска подстроки внутри термина - триграммы словаря.
+ * Кандидаты из индекса перепроверяются по исходному тексту, поэтому результат совпадает с like-поиском в БД.
+ * Строится из таблицы items при старте и обновляется после фиксации транзакции сохранения вещи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        List<IndexedItem> items = itemRepository.findAllIndexed();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            terms.clear();
+            termsByGram.clear();
+            for (IndexedItem item : items) {
+                add(item.getId(), item.getName(), item.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index rebuilt: {} items, {} terms.", documents.size(), terms.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> ids = searchIds(text, from, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Применяет изменения вещи к индексу после фиксации текущей транзакции.
+     */
+    @Override
+    public void onItemSaved(Item item) {
+        Long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> {
+            if (available) {
+                add(id, name, description);
+            } else {
+                remove(id);
+            }
+        });
+    }
+
+    /**
+     * Убирает удалённые каскадом вещи после фиксации, иначе их id оставались бы в индексе,
+     * а страницы поиска приходили бы неполными
+     */
+    @Override
+    public void onItemsDeleted(Collection<Long> itemIds) {
+        List<Long> ids = List.copyOf(itemIds);
+        afterCommit(() -> ids.forEach(this::remove));
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * id найденных вещей в порядке релевантности, не больше limit начиная с offset
+     */
+    public List<Long> searchIds(String text, int offset, int limit) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            for (String token : tokenize(query)) {
+                long[] matches = idsContaining(token);
+                candidates = candidates == null ? matches : intersect(candidates, matches);
+                if (candidates.length == 0) {
+                    return List.of();
+                }
+            }
+            if (candidates == null) {
+                candidates = documents.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            return rank(candidates, query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> rank(long[] candidates, String query, int offset, int limit) {
+        List<List<Long>> groups = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (long id : candidates) {
+            int rank = documents.get(id).rank(query);
+            if (rank >= 0) {
+                groups.get(rank).add(id);
+            }
+        }
+        return groups.stream()
+                .flatMap(List::stream)
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * id вещей, у которых хотя бы один термин содержит token
+     */
+    private long[] idsContaining(String token) {
+        List<PostingList> lists = new ArrayList<>();
+        int total = 0;
+        for (String term : termsContaining(token)) {
+            PostingList list = terms.get(term);
+            lists.add(list);
+            total += list.size();
+        }
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = new long[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            list.copyTo(ids, offset);
+            offset += list.size();
+        }
+        if (lists.size() == 1) {
+            return ids;
+        }
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unique);
+    }
+
+    private Collection<String> termsContaining(String token) {
+        if (token.length() < GRAM) {
+            return terms.keySet().stream()
+                    .filter(term -> term.contains(token))
+                    .collect(Collectors.toList());
+        }
+        Set<String> rarest = null;
+        for (String gram : grams(token)) {
+            Set<String> withGram = termsByGram.getOrDefault(gram, Set.of());
+            if (rarest == null || withGram.size() < rarest.size()) {
+                rarest = withGram;
+            }
+        }
+        return rarest.stream()
+                .filter(term -> term.contains(token))
+                .collect(Collectors.toList());
+    }
+
+    private void add(Long id, String name, String description) {
+        remove(id);
+        Document document = new Document(normalize(name), normalize(description));
+        documents.put(id, document);
+        for (String term : document.terms()) {
+            terms.computeIfAbsent(term, this::registerTerm).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            PostingList list = terms.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                terms.remove(term);
+                unregisterTerm(term);
+            }
+        }
+    }
+
+    private PostingList registerTerm(String term) {
+        for (String gram : grams(term)) {
+            termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return new PostingList();
+    }
+
+    private void unregisterTerm(String term) {
+        for (String gram : grams(term)) {
+            Set<String> withGram = termsByGram.get(gram);
+            withGram.remove(term);
+            if (withGram.isEmpty()) {
+                termsByGram.remove(gram);
+            }
+        }
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Document {
+
+        private final String name;
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private Set<String> terms() {
+            Set<String> terms = tokenize(name);
+            terms.addAll(tokenize(description));
+            return terms;
+        }
+
+        /**
+         * Группа релевантности как в {@link ItemRepository#search}, -1 - если подстроки нет
+         */
+        private int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            }
+            if (name.startsWith(query)) {
+                return 1;
+            }
+            if (name.contains(query)) {
+                return 2;
+            }
+            return description.contains(query) ? 3 : -1;
+        }
+    }
+}
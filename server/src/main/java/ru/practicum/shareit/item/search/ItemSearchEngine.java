@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством shareit.search.engine: database (по умолчанию) или memory.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Доступные вещи в порядке релевантности: точное совпадение названия, начало названия,
+     * подстрока названия, подстрока описания; внутри группы - по id
+     */
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Вызывается после сохранения вещи, чтобы поисковая структура увидела изменения
+     */
+    default void onItemSaved(Item item) {
+    }
+
+    /**
+     * Вызывается для вещей, которые удаляет каскад в БД мимо сохранения вещей, например при удалении пользователя
+     */
+    default void onItemsDeleted(Collection<Long> itemIds) {
+    }
+}
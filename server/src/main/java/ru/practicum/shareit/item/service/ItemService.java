@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
@@ -13,9 +16,19 @@ public interface ItemService {
 
     ItemDto getItemInfo(Long itemId, Long userId);
 
-    Collection<ItemDto> getOwnerItems(Long userId);
+    Collection<ItemDto> getOwnerItems(Long userId, int from, int size);
 
-    Collection<ItemDto> getItemsByKeyword(String text);
+    /**
+     * Следующая порция вещей владельца в порядке id, начиная после afterId - для потоковой выгрузки
+     */
+    List<ItemDto> getOwnerItemsAfter(Long userId, Long afterId, int size);
+
+    /**
+     * Свободные окна вещи внутри [from, to): промежутки без аренд в статусах WAITING и APPROVED
+     */
+    List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    Collection<ItemDto> getItemsByKeyword(String text, int from, int size);
 
     ItemDto update(Long itemId, Long userId, ItemDto itemDto);
 
@@ -2,15 +2,18 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.BadRequestException;
 import ru.practicum.shareit.error.ForbiddenException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -18,6 +21,8 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -37,11 +42,15 @@ import static ru.practicum.shareit.constant.Status.APPROVED;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final Sort SORT_BY_ID = Sort.by(Sort.DEFAULT_DIRECTION, "id");
+
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingAvailabilityIndex availabilityIndex;
 
     @Transactional
     @Override
@@ -53,7 +62,9 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Request not found."));
             item.setRequest(itemRequest);
         }
-        itemDto = ItemMapper.INSTANCE.toItemDto(itemRepository.save(item));
+        Item added = itemRepository.save(item);
+        itemSearchEngine.onItemSaved(added);
+        itemDto = ItemMapper.INSTANCE.toItemDto(added);
         log.info("Success! Item successfully added!");
         return itemDto;
     }
@@ -99,45 +110,66 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Collection<ItemDto> getOwnerItems(Long userId) {
-        List<Item> items = itemRepository.findAllByOwnerId(userId, Sort.by(Sort.DEFAULT_DIRECTION, "id"));
+    public Collection<ItemDto> getOwnerItems(Long userId, int from, int size) {
+        List<Item> items = itemRepository.findAllByOwnerId(userId, OffsetPageRequest.of(from, size, SORT_BY_ID));
         log.info("Find owner items with id: {}", userId);
+        return toItemDtoOwnerList(items);
+    }
+
+    @Override
+    public List<ItemDto> getOwnerItemsAfter(Long userId, Long afterId, int size) {
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(userId, afterId,
+                PageRequest.of(0, size, SORT_BY_ID));
+        log.info("Find owner items with id: {} after item: {}", userId, afterId);
+        return toItemDtoOwnerList(items);
+    }
+
+    private List<ItemDto> toItemDtoOwnerList(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
         List<Long> ids = items.stream().map(Item::getId).collect(Collectors.toList());
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findAllByItem_IdIn(ids);
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIdIn(ids, now)) {
+            Map<Long, Booking> target = booking.getEnd().isBefore(now) ? lastBookings : nextBookings;
+            target.put(booking.getItem().getId(), booking);
+        }
         log.info("Find bookings.");
-        List<Booking> lastBookings = bookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(now))
-                .collect(Collectors.toList());
-        List<Booking> nextBookings = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(now))
-                .collect(Collectors.toList());
-        List<Comment> comments = commentRepository.findAllByItem_IdIn(ids);
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItem_IdIn(ids).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
         log.info("Find comments.");
-        return items.stream().map(item -> {
-            List<Comment> c = comments.stream()
-                    .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                    .collect(Collectors.toList());
-            Booking lastBooking = lastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .max(Comparator.comparing(Booking::getEnd))
-                    .orElse(null);
-            Booking nextBooking = nextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                    .min(Comparator.comparing(Booking::getStart))
-                    .orElse(null);
-            return ItemMapper.INSTANCE.toItemDtoOwner(item, lastBooking, nextBooking, c);
-        }).collect(Collectors.toList());
+        return items.stream()
+                .map(item -> ItemMapper.INSTANCE.toItemDtoOwner(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Окна считаются по индексу занятости без обращения к таблице bookings;
+     * вещь проверяется через кэш второго уровня
+     */
+    @Override
+    public List<FreeIntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Invalid availability range.");
+        }
+        itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found."));
+        log.info("Availability of item with id: {} from {} to {}", itemId, from, to);
+        return ItemMapper.INSTANCE.toFreeIntervalDtoList(availabilityIndex.getFreeIntervals(itemId, from, to));
     }
 
     @Override
-    public Collection<ItemDto> getItemsByKeyword(String text) {
+    public Collection<ItemDto> getItemsByKeyword(String text, int from, int size) {
         if (text.isBlank()) {
             log.info("Blank for blank, that's fair.");
             return List.of();
         } else {
             log.info("Items by text: {}", text);
-            return ItemMapper.INSTANCE.toItemDtoList(itemRepository.search(text));
+            return ItemMapper.INSTANCE.toItemDtoList(itemSearchEngine.search(text, from, size));
         }
     }
 
@@ -147,7 +179,7 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("User not found."));
         Item itemFromRepo = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found."));
-        if (!itemFromRepo.getOwner().equals(user)) {
+        if (!itemFromRepo.getOwner().getId().equals(user.getId())) {
             throw new ForbiddenException(
                     "Error! You don't have permission to access this option." +
                             " Only the owner of the item can update it.");
@@ -167,6 +199,7 @@ public class ItemServiceImpl implements ItemService {
         );
         if (isValid(itemDto)) {
             Item item = itemRepository.save(ItemMapper.INSTANCE.toItemWithId(itemDto, user));
+            itemSearchEngine.onItemSaved(item);
             log.info("Success! Updated item: {}", item);
             return ItemMapper.INSTANCE.toItemDto(item);
         } else {
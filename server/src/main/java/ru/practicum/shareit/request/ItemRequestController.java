@@ -2,18 +2,23 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.Collection;
 
+import static ru.practicum.shareit.constant.Constant.CURSOR_PAGE_MAX_SIZE;
 import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -45,6 +50,16 @@ public class ItemRequestController {
         return itemRequestService.getAll(userId, from, size);
     }
 
+    @GetMapping(path = "/all", params = "cursor")
+    public CursorPage<ItemResponseWithItemsDto> getAllAfterCursor(@RequestHeader(OWNER_ID_HEADER) Long userId,
+                                                                  @RequestParam String cursor,
+                                                                  @RequestParam(required = false, defaultValue = "20")
+                                                                      @Min(1) @Max(CURSOR_PAGE_MAX_SIZE) int size) {
+        log.info("Поступил запрос на получение ленты запросов от пользователя с id: {} после курсора: {}",
+                userId, cursor);
+        return itemRequestService.getAllAfterCursor(userId, cursor, size);
+    }
+
     @GetMapping("/{requestId}")
     public ItemResponseWithItemsDto getById(@RequestHeader(OWNER_ID_HEADER) Long userId,
                                             @PathVariable Long requestId) {
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.request.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class FeedEntry {
+
+    private final Long id;
+
+    private final Long requesterId;
+
+    private final String description;
+
+    private final LocalDateTime created;
+
+    /**
+     * Порядок ленты (created desc, id desc): true, если запись стоит в ленте раньше other
+     */
+    boolean isBefore(FeedEntry other) {
+        int compare = created.compareTo(other.created);
+        return compare > 0 || compare == 0 && id > other.id;
+    }
+}
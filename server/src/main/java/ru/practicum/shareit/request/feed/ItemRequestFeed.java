@@ -0,0 +1,190 @@
+package ru.practicum.shareit.request.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.request.repository.ItemRequestRepository.FEED_SORT;
+
+/**
+ * Кольцевой буфер самых новых заявок в порядке ленты (created desc, id desc).
+ * Инвариант: в буфере есть все заявки, которые в ленте не ниже самой старой записи буфера,
+ * а пока complete - вообще все заявки. Поэтому страница, целиком набранная из буфера, совпадает с выборкой из БД.
+ * Строится из таблицы requests при старте и пополняется после фиксации транзакции создания заявки.
+ */
+@Slf4j
+@Component
+public class ItemRequestFeed {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final FeedEntry[] slots;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int head;
+    private int size;
+    private boolean complete;
+
+    public ItemRequestFeed(ItemRequestRepository itemRequestRepository,
+                           @Value("${shareit.requests.feed-size:1000}") int capacity) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.slots = new FeedEntry[capacity];
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<ItemRequest> newest = itemRequestRepository.findAll(PageRequest.of(0, slots.length, FEED_SORT))
+                .getContent();
+        lock.writeLock().lock();
+        try {
+            head = 0;
+            size = 0;
+            for (ItemRequest request : newest) {
+                slots[size++] = toEntry(request);
+            }
+            complete = size < slots.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item request feed rebuilt: {} requests, complete: {}.", newest.size(), complete);
+    }
+
+    /**
+     * Страница ленты без заявок пользователя userId: после курсора, с пропуском skip записей, не больше limit.
+     * Пусто, если буфер не покрывает страницу и её нужно читать из БД.
+     */
+    public Optional<List<FeedEntry>> find(Long userId, Cursor after, int skip, int limit) {
+        List<FeedEntry> page = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (int i = 0; i < size && page.size() < limit; i++) {
+                FeedEntry entry = at(i);
+                if (entry.getRequesterId().equals(userId)
+                        || after != null && !isAfter(entry, after)) {
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                } else {
+                    page.add(entry);
+                }
+            }
+            return page.size() == limit || complete ? Optional.of(page) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет заявку после фиксации текущей транзакции
+     */
+    public void onRequestCreated(ItemRequest request) {
+        FeedEntry entry = toEntry(request);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(entry);
+                }
+            });
+        } else {
+            add(entry);
+        }
+    }
+
+    /**
+     * Заявки удалённого пользователя удаляются из БД каскадно, из буфера - после фиксации транзакции
+     */
+    public void onRequesterDeleted(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeRequester(userId);
+                }
+            });
+        } else {
+            removeRequester(userId);
+        }
+    }
+
+    /**
+     * Обычно новая заявка встаёт в голову буфера, вытесняя самую старую. Заявка, зафиксированная позже более новой,
+     * вставляется на своё место. Заявка ниже самой старой записи попадает в буфер, только пока он complete
+     * и в нём есть место; иначе она остаётся только в БД, а буфер перестаёт быть complete.
+     */
+    private void add(FeedEntry entry) {
+        lock.writeLock().lock();
+        try {
+            int position = 0;
+            while (position < size && !entry.isBefore(at(position))) {
+                position++;
+            }
+            if (position == size && (!complete || size == slots.length)) {
+                complete = false;
+                return;
+            }
+            if (size == slots.length) {
+                complete = false;
+                size--;
+            }
+            head = (head - 1 + slots.length) % slots.length;
+            for (int i = 0; i < position; i++) {
+                slots[(head + i) % slots.length] = at(i + 1);
+            }
+            slots[(head + position) % slots.length] = entry;
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeRequester(Long userId) {
+        lock.writeLock().lock();
+        try {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                FeedEntry entry = at(i);
+                if (!entry.getRequesterId().equals(userId)) {
+                    slots[(head + kept++) % slots.length] = entry;
+                }
+            }
+            for (int i = kept; i < size; i++) {
+                slots[(head + i) % slots.length] = null;
+            }
+            size = kept;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private FeedEntry at(int position) {
+        return slots[(head + position) % slots.length];
+    }
+
+    private static boolean isAfter(FeedEntry entry, Cursor cursor) {
+        int compare = entry.getCreated().compareTo(cursor.getSortKey());
+        return compare < 0 || compare == 0 && entry.getId() < cursor.getId();
+    }
+
+    /**
+     * Время обрезается до микросекунд, как его хранят H2 и PostgreSQL, чтобы курсоры из буфера и из БД совпадали
+     */
+    private static FeedEntry toEntry(ItemRequest request) {
+        return new FeedEntry(request.getId(), request.getRequester().getId(), request.getDescription(),
+                request.getCreated().truncatedTo(ChronoUnit.MICROS));
+    }
+}
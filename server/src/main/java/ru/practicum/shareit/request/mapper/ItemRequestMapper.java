@@ -7,6 +7,7 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
+import ru.practicum.shareit.request.feed.FeedEntry;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +23,12 @@ public interface ItemRequestMapper {
 
     ItemResponseWithItemsDto toResponseWithItems(ItemRequest itemRequest);
 
+    List<ItemResponseWithItemsDto> toResponseWithItemsList(List<ItemRequest> itemRequests);
+
+    ItemResponseWithItemsDto toResponseWithItemsFromFeed(FeedEntry entry);
+
+    List<ItemResponseWithItemsDto> toResponseWithItemsFromFeed(List<FeedEntry> entries);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "requester", source = "requester")
     ItemRequest toItemRequest(ItemRequestDto itemRequestDto, User requester);
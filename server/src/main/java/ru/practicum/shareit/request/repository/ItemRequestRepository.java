@@ -1,16 +1,33 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    /**
+     * Порядок общей ленты заявок, его обслуживает индекс ix_requests_created
+     */
+    Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "created", "id");
+
     List<ItemRequest> findAllByRequesterIdOrderByCreated(Long userId, Pageable pageable);
 
     List<ItemRequest> findAllByRequesterIdNot(Long userId, Pageable pageable);
+
+    /**
+     * Keyset-страница ленты после записи (created, id) в порядке (created desc, id desc)
+     */
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id <> ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequesterIdNotBefore(Long userId, LocalDateTime created, Long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
@@ -14,5 +15,7 @@ public interface ItemRequestService {
 
     Collection<ItemResponseWithItemsDto> getAll(Long userId, int from, int size);
 
+    CursorPage<ItemResponseWithItemsDto> getAllAfterCursor(Long userId, String cursor, int size);
+
     ItemResponseWithItemsDto getById(Long userId, Long requestId);
 }
@@ -8,9 +8,12 @@ import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -19,8 +22,11 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.request.repository.ItemRequestRepository.FEED_SORT;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,12 +34,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemRequestFeed itemRequestFeed;
 
     @Override
     public ItemResponseDto create(Long userId, ItemRequestDto itemRequestDto) {
         User user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
         ItemRequest itemRequest = itemRequestRepository.save(
                 ItemRequestMapper.INSTANCE.toItemRequest(itemRequestDto, user));
+        itemRequestFeed.onRequestCreated(itemRequest);
         log.info("Success! Request: {} successfully created!", itemRequestDto);
         return ItemRequestMapper.INSTANCE.toResponseDto(itemRequest);
     }
@@ -43,15 +51,43 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
         List<ItemRequest> itemRequests = itemRequestRepository
                 .findAllByRequesterIdOrderByCreated(userId, PageRequest.of(from / size, size));
-        return addItems(itemRequests);
+        return addItems(ItemRequestMapper.INSTANCE.toResponseWithItemsList(itemRequests));
     }
 
     @Override
     public Collection<ItemResponseWithItemsDto> getAll(Long userId, int from, int size) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
-        List<ItemRequest> itemRequests = itemRequestRepository
-                .findAllByRequesterIdNot(userId, PageRequest.of(from / size, size));
-        return addItems(itemRequests);
+        int offset = from / size * size;
+        List<ItemResponseWithItemsDto> requests = itemRequestFeed.find(userId, null, offset, size)
+                .map(ItemRequestMapper.INSTANCE::toResponseWithItemsFromFeed)
+                .orElseGet(() -> ItemRequestMapper.INSTANCE.toResponseWithItemsList(itemRequestRepository
+                        .findAllByRequesterIdNot(userId, PageRequest.of(from / size, size, FEED_SORT))));
+        return addItems(requests);
+    }
+
+    /**
+     * Страница ленты в порядке (created desc, id desc) сразу после курсора. Первые страницы обычно целиком
+     * набираются из буфера новых заявок, остальные читаются из БД по индексу ix_requests_created.
+     * Запрашивается на одну запись больше, чтобы понять, есть ли следующая страница.
+     */
+    @Override
+    public CursorPage<ItemResponseWithItemsDto> getAllAfterCursor(Long userId, String cursor, int size) {
+        userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found."));
+        Cursor after = Cursor.decode(cursor);
+        List<ItemResponseWithItemsDto> requests = itemRequestFeed.find(userId, after, 0, size + 1)
+                .map(ItemRequestMapper.INSTANCE::toResponseWithItemsFromFeed)
+                .orElseGet(() -> ItemRequestMapper.INSTANCE.toResponseWithItemsList(after == null
+                        ? itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(0, size + 1, FEED_SORT))
+                        : itemRequestRepository.findAllByRequesterIdNotBefore(userId, after.getSortKey(),
+                        after.getId(), PageRequest.of(0, size + 1))));
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            ItemResponseWithItemsDto last = requests.get(size - 1);
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        log.info("Success! Request feed page for user: {} after cursor: {}", userId, cursor);
+        return new CursorPage<>(addItems(requests), nextCursor);
     }
 
     @Override
@@ -64,19 +100,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return withItemsDto;
     }
 
-    private List<ItemResponseWithItemsDto> addItems(List<ItemRequest> itemRequests) {
-        List<Long> ids = itemRequests.stream()
-                .map(ItemRequest::getRequester)
-                .map(User::getId)
+    /**
+     * Вещи всех заявок страницы загружаются одним запросом и раскладываются по id заявки за один проход
+     */
+    private List<ItemResponseWithItemsDto> addItems(List<ItemResponseWithItemsDto> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        List<Long> ids = requests.stream()
+                .map(ItemResponseWithItemsDto::getId)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAllByRequestRequesterIdIn(ids);
-        return itemRequests.stream().map(itemRequest -> {
-            List<Item> items1 = items.stream()
-                    .filter(item -> item.getRequest().getRequester().getId().equals(itemRequest.getRequester().getId()))
-                    .collect(Collectors.toList());
-            ItemResponseWithItemsDto withItemsDto = ItemRequestMapper.INSTANCE.toResponseWithItems(itemRequest);
-            withItemsDto.setItems(ItemMapper.INSTANCE.toItemDtoList(items1));
-            return withItemsDto;
-        }).collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(ids).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        for (ItemResponseWithItemsDto request : requests) {
+            request.setItems(ItemMapper.INSTANCE.toItemDtoList(
+                    itemsByRequest.getOrDefault(request.getId(), List.of())));
+        }
+        return requests;
     }
 }
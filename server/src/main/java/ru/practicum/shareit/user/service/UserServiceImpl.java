@@ -5,18 +5,31 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.BadRequestException;
 import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -25,6 +38,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemSearchEngine itemSearchEngine;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional
     @Override
@@ -77,12 +96,47 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Каскад в БД удаляет аренды пользователя, его вещи и ответы на его заявки вместе с их арендами,
+     * поэтому окна аренд и id вещей заранее выбираются и убираются из индексов после фиксации
+     */
+    @Transactional
     @Override
     public void deleteById(Long userId) {
+        List<BookingInterval> cascaded = bookingRepository.findAllIntervalsByUserIdAndStatusIn(userId,
+                BookingAvailabilityIndex.BLOCKING_STATUSES);
+        List<Long> cascadedItems = itemRepository.findAllIdsCascadedWithUser(userId);
         userRepository.deleteById(userId);
+        availabilityIndex.releaseAll(cascaded);
+        evictCascadeDeleted();
+        itemRequestFeed.onRequesterDeleted(userId);
+        itemSearchEngine.onItemsDeleted(cascadedItems);
         log.info("User with id: {} successfully deleted!", userId);
     }
 
+    /**
+     * Вещи и заявки пользователя удаляет каскад в БД, мимо Hibernate, поэтому их регионы кэша сбрасываются целиком.
+     * Сброс идёт после фиксации транзакции, иначе параллельное чтение успело бы вернуть в кэш удаляемые вещи
+     */
+    private void evictCascadeDeleted() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictItemsAndRequests();
+                }
+            });
+        } else {
+            evictItemsAndRequests();
+        }
+    }
+
+    private void evictItemsAndRequests() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Item.class);
+        cache.evict(ItemRequest.class);
+    }
+
     private boolean isValid(UserDto userDto) {
         Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
         Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto);
@@ -3,9 +3,21 @@ DROP TABLE IF EXISTS PUBLIC.bookings;
 DROP TABLE IF EXISTS PUBLIC.items;
 DROP TABLE IF EXISTS PUBLIC.requests;
 DROP TABLE IF EXISTS PUBLIC.users;
+DROP SEQUENCE IF EXISTS PUBLIC.comments_seq;
+DROP SEQUENCE IF EXISTS PUBLIC.bookings_seq;
+DROP SEQUENCE IF EXISTS PUBLIC.items_seq;
+DROP SEQUENCE IF EXISTS PUBLIC.requests_seq;
+DROP SEQUENCE IF EXISTS PUBLIC.users_seq;
+
+-- Шаг последовательностей равен allocationSize в @SequenceGenerator: Hibernate выдаёт id блоками по 50
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
                                      email VARCHAR(512) NOT NULL,
                                      CONSTRAINT pk_user PRIMARY KEY (id),
@@ -13,7 +25,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         description VARCHAR(512) NOT NULL,
                                         requester_id BIGINT NOT NULL,
                                         created TIMESTAMP NOT NULL,
@@ -22,7 +34,7 @@ CREATE TABLE IF NOT EXISTS requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-                                     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                     id BIGINT NOT NULL,
                                      name VARCHAR(255) NOT NULL,
                                      description VARCHAR(512) NOT NULL,
                                      is_available boolean NOT NULL,
@@ -34,7 +46,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         start_date TIMESTAMP NOT NULL,
                                         end_date TIMESTAMP NOT NULL,
                                         item_id BIGINT NOT NULL,
@@ -46,7 +58,7 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-                                        id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+                                        id BIGINT NOT NULL,
                                         text VARCHAR(1024) NOT NULL,
                                         item_id BIGINT NOT NULL,
                                         author_id BIGINT NOT NULL,
@@ -54,4 +66,14 @@ CREATE TABLE IF NOT EXISTS comments (
                                         CONSTRAINT pk_comment PRIMARY KEY (id),
                                         CONSTRAINT fk_comment_to_items FOREIGN KEY (item_id) REFERENCES items(id) ON UPDATE RESTRICT ON DELETE CASCADE,
                                         CONSTRAINT fk_comment_to_users FOREIGN KEY (author_id) REFERENCES users(id) ON UPDATE RESTRICT ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Индексы под запросы репозиториев, использование проверяет IndexUsageTest
+CREATE INDEX IF NOT EXISTS ix_requests_requester_created ON requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS ix_comments_item_id ON comments (item_id);
@@ -0,0 +1,212 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.BeforeTransaction;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.HibernateCacheConfig;
+import ru.practicum.shareit.constant.State;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+
+/**
+ * Каждый запрос репозиториев, выполняемый на пути обработки запроса, читает таблицы через индекс:
+ * перехваченный SQL проверяется через EXPLAIN в H2, план не должен содержать tableScan.
+ * Полные выборки по замыслу (поиск подстроки, построение индексов при старте) не проверяются
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.IndexUsageTest$SqlCapture")
+@Import(HibernateCacheConfig.class)
+public class IndexUsageTest {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+    private static final String[][] FOREIGN_KEYS = {
+            {"requests", "fk_request_to_users"},
+            {"items", "fk_item_to_users"},
+            {"items", "fk_item_to_requests"},
+            {"bookings", "fk_booking_to_items"},
+            {"bookings", "fk_booking_to_users"},
+            {"comments", "fk_comment_to_items"},
+            {"comments", "fk_comment_to_users"}
+    };
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+    private Booking booking;
+
+    /**
+     * H2 сам индексирует колонки внешних ключей, а PostgreSQL - нет. Без ограничений FK в плане остаются
+     * только первичные ключи и индексы из schema.sql, как в PostgreSQL
+     */
+    @BeforeTransaction
+    void dropForeignKeys() {
+        for (String[] constraint : FOREIGN_KEYS) {
+            jdbcTemplate.execute("alter table " + constraint[0] + " drop constraint if exists " + constraint[1]);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(newUser("owner"));
+        booker = entityManager.persist(newUser("booker"));
+        request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequester(booker);
+        request.setCreated(now);
+        request = entityManager.persist(request);
+        item = factory.getItem(null, owner);
+        item.setRequest(request);
+        item = entityManager.persist(item);
+        booking = factory.getBooking(null, booker, item);
+        booking.setStart(now.minusDays(2));
+        booking.setEnd(now.minusDays(1));
+        booking.setStatus(Status.APPROVED);
+        booking = entityManager.persist(booking);
+        Comment comment = new Comment();
+        comment.setText("Good");
+        comment.setItem(item);
+        comment.setAuthor(booker);
+        comment.setCreated(now);
+        entityManager.persist(comment);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bookingQueriesUseIndexesTest() {
+        assertIndexed(() -> bookingRepository.findById(booking.getId()));
+        for (State state : State.values()) {
+            assertIndexed(() -> bookingRepository.findAll(byBooker(booker.getId()).and(inState(state, now)),
+                    SORT, 0, 20), "IX_BOOKINGS_BOOKER_START");
+            assertIndexed(() -> bookingRepository.findAll(byOwner(owner.getId()).and(inState(state, now)),
+                    SORT, 0, 20), "IX_ITEMS_OWNER_ID");
+        }
+        assertIndexed(() -> bookingRepository.findAll(byBooker(booker.getId())
+                .and(beforeCursor(new Cursor(now, booking.getId()))), SORT, 0, 20), "IX_BOOKINGS_BOOKER_START");
+        assertIndexed(() -> bookingRepository.findAll(byOwner(owner.getId()).and(byItem(item.getId()))
+                .and(overlapping(now, now.plusDays(1))), SORT, 0, 20));
+        assertIndexed(() -> bookingRepository.findFirstByItemIdAndStatusAndStartIsBefore(item.getId(),
+                Status.APPROVED, now, Sort.by(Sort.Direction.DESC, "end")), "IX_BOOKINGS_ITEM_STATUS_START");
+        assertIndexed(() -> bookingRepository.findFirstByItemIdAndStatusAndStartIsAfter(item.getId(),
+                Status.APPROVED, now, Sort.by(Sort.Direction.ASC, "start")), "IX_BOOKINGS_ITEM_STATUS_START");
+        assertIndexed(() -> bookingRepository.findLastAndNextApprovedByItemIdIn(List.of(item.getId()), now),
+                "IX_BOOKINGS_ITEM_STATUS_END", "IX_BOOKINGS_ITEM_STATUS_START");
+        assertIndexed(() -> bookingRepository.findAllByBooker_IdAndItem_IdAndStartIsBeforeAndEndIsBefore(
+                booker.getId(), item.getId(), now, now), "IX_BOOKINGS_BOOKER_START");
+        assertIndexed(() -> bookingRepository.findAllLockedByIdIn(Set.of(booking.getId())));
+        assertIndexed(() -> bookingRepository.updateWaitingStatusByOwner(Set.of(booking.getId()), owner.getId(),
+                Status.APPROVED));
+    }
+
+    @Test
+    void itemQueriesUseIndexesTest() {
+        assertIndexed(() -> itemRepository.findById(item.getId()));
+        assertIndexed(() -> itemRepository.findAllByOwnerId(owner.getId(), PageRequest.of(0, 20, Sort.by("id"))),
+                "IX_ITEMS_OWNER_ID");
+        // на маленькой таблице H2 выбирает диапазон первичного ключа по курсору, это тоже индексный доступ
+        assertIndexed(() -> itemRepository.findAllByOwnerIdAndIdGreaterThan(owner.getId(), 0L,
+                PageRequest.of(0, 20, Sort.by("id"))));
+        assertIndexed(() -> itemRepository.findAllByIdIn(List.of(item.getId())));
+        assertIndexed(() -> itemRepository.findAllByRequestId(request.getId()), "IX_ITEMS_REQUEST_ID");
+        assertIndexed(() -> itemRepository.findAllByRequestIdIn(List.of(request.getId())), "IX_ITEMS_REQUEST_ID");
+        assertIndexed(() -> commentRepository.findAllByItemId(item.getId()), "IX_COMMENTS_ITEM_ID");
+        assertIndexed(() -> commentRepository.findAllByItem_IdIn(List.of(item.getId())), "IX_COMMENTS_ITEM_ID");
+        assertIndexed(() -> itemRequestRepository.findAllByRequesterIdOrderByCreated(booker.getId(),
+                PageRequest.of(0, 20)), "IX_REQUESTS_REQUESTER_CREATED");
+        assertIndexed(() -> itemRequestRepository.findAllByRequesterIdNot(owner.getId(),
+                PageRequest.of(0, 20, ItemRequestRepository.FEED_SORT)), "IX_REQUESTS_CREATED");
+        assertIndexed(() -> itemRequestRepository.findAllByRequesterIdNotBefore(owner.getId(), now.plusDays(1),
+                request.getId(), PageRequest.of(0, 20)), "IX_REQUESTS_CREATED");
+    }
+
+    /**
+     * Для запросов с составным индексом проверяется и его имя в плане
+     */
+    private void assertIndexed(Runnable repositoryCall, String... expectedIndexes) {
+        CAPTURED.clear();
+        repositoryCall.run();
+        entityManager.flush();
+        List<String> statements = List.copyOf(CAPTURED);
+        assertThat(statements, not(empty()));
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(sql, plan, not(containsString("tableScan")));
+        }
+        String plans = statements.stream()
+                .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .collect(Collectors.joining("\n"));
+        for (String index : expectedIndexes) {
+            assertThat(plans, containsString("PUBLIC." + index));
+        }
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (!sql.startsWith("select next value") && !sql.startsWith("call next value")) {
+                CAPTURED.add(sql);
+            }
+            return sql;
+        }
+    }
+}
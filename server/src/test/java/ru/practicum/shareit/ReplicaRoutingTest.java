@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Вторая база H2 играет роль отстающей реплики: строки, которых в ней нет, видны только при чтении из основной.
+ * Кэш второго уровня выключен, чтобы чтения доходили до баз
+ */
+@SpringBootTest(properties = {
+        "shareit.replicas.enabled=true",
+        "shareit.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.replicas.health-check-interval=1h",
+        "shareit.replicas.read-your-writes-window=1m",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+
+    private final JdbcTemplate replica = new JdbcTemplate(replicaDataSource());
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replica.getDataSource());
+        User user = new User();
+        user.setName("Owner");
+        user.setEmail("owner@mail.ru");
+        owner = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        replica.update("delete from users");
+    }
+
+    @Test
+    void shouldServeReadsFromReplicaTest() throws Exception {
+        mvc.perform(get("/users/{userId}", owner.getId()))
+                .andExpect(status().isNotFound());
+
+        replica.update("insert into users (id, name, email) values (?, ?, ?)",
+                owner.getId(), "Replicated owner", owner.getEmail());
+
+        mvc.perform(get("/users/{userId}", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replicated owner"));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryTest() throws Exception {
+        mvc.perform(post("/items")
+                        .header(OWNER_ID_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(factory.getItemDto())))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/items").header(OWNER_ID_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        mvc.perform(get("/users/{userId}", owner.getId()).header(OWNER_ID_HEADER, owner.getId() + 1))
+                .andExpect(status().isNotFound());
+    }
+
+    private static JdbcDataSource replicaDataSource() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(REPLICA_URL);
+        dataSource.setUser("test");
+        dataSource.setPassword("test");
+        return dataSource;
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Пользователи, вещи и заявки читаются из кэша второго уровня, а изменения через сервисы не оставляют в нём
+ * устаревших записей
+ */
+@SpringBootTest(properties = "shareit.search.engine=database")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+
+    private Statistics statistics;
+    private Cache cache;
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cache = entityManagerFactory.getCache();
+        owner = userService.add(factory.getUserDto());
+        item = itemService.addItem(factory.getItemDto(), owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReadUserFromCacheTest() {
+        statistics.clear();
+
+        userService.getById(owner.getId());
+        userService.getById(owner.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo(2L));
+        FunctionCounter hits = meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "hit")
+                .functionCounter();
+        assertThat(hits.count(), greaterThan(0.0));
+    }
+
+    @Test
+    void shouldSeeUpdatedUserAndItemTest() {
+        UserDto update = new UserDto();
+        update.setName("Renamed");
+        userService.update(owner.getId(), update);
+        ItemDto itemUpdate = new ItemDto();
+        itemUpdate.setName("Renamed drill");
+        itemService.update(item.getId(), owner.getId(), itemUpdate);
+
+        assertThat(userService.getById(owner.getId()).getName(), equalTo("Renamed"));
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getName(), equalTo("Renamed drill"));
+        assertThat(cache.contains(User.class, owner.getId()), is(true));
+    }
+
+    @Test
+    void shouldCacheUserListUntilUsersChangeTest() {
+        userService.getAllUsers();
+        statistics.clear();
+
+        assertThat(userService.getAllUsers(), hasSize(1));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(1L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+
+        UserDto other = factory.getUserDto();
+        other.setEmail("other@mail.ru");
+        userService.add(other);
+
+        assertThat(userService.getAllUsers(), hasSize(2));
+    }
+
+    @Test
+    void shouldEvictCascadeDeletedItemsTest() {
+        itemRepository.findById(item.getId());
+        assertThat(cache.contains(Item.class, item.getId()), is(true));
+
+        userService.deleteById(owner.getId());
+
+        assertThat(userRepository.findById(owner.getId()).isPresent(), is(false));
+        assertThat(cache.contains(Item.class, item.getId()), is(false));
+        assertThat(itemRepository.findById(item.getId()).isPresent(), is(false));
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.Constant.OWNER_ID_HEADER;
+
+/**
+ * Число SQL-запросов на эндпоинт не должно зависеть от размера страницы.
+ * Проверка существования пользователя обслуживается кэшем второго уровня и запросов не добавляет
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureMockMvc
+public class StatementCountTest {
+
+    private static final int ITEMS = 5;
+    private static final int BOOKERS = 4;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(newUser("owner"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(userRepository.save(newUser("booker" + i)));
+        }
+        booker = bookers.get(0);
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequester(bookers.get(1));
+        request = itemRequestRepository.save(request);
+
+        for (int i = 0; i < ITEMS; i++) {
+            Item newItem = factory.getItem(null, owner);
+            newItem.setName("Drill" + i);
+            newItem.setRequest(i % 2 == 0 ? request : null);
+            newItem = itemRepository.save(newItem);
+            for (int j = 0; j < BOOKERS; j++) {
+                User user = bookers.get(j);
+                bookingRepository.save(newBooking(newItem, user, now.minusDays(10 - j), now.minusDays(9 - j)));
+                bookingRepository.save(newBooking(newItem, user, now.plusDays(j + 1), now.plusDays(j + 2)));
+                Comment comment = new Comment();
+                comment.setText("Good " + j);
+                comment.setItem(newItem);
+                comment.setAuthor(user);
+                comment.setCreated(now);
+                commentRepository.save(comment);
+            }
+            item = newItem;
+        }
+        booking = bookingRepository.save(newBooking(item, booker, now.plusDays(20), now.plusDays(21)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getBookingByIdTest() throws Exception {
+        assertStatements(get("/bookings/{id}", booking.getId()).header(OWNER_ID_HEADER, booker.getId()), 1);
+    }
+
+    @Test
+    void getBookingsByUserTest() throws Exception {
+        assertStatements(get("/bookings").header(OWNER_ID_HEADER, booker.getId())
+                .param("state", "ALL").param("from", "0").param("size", "20"), 1);
+    }
+
+    @Test
+    void getBookingsByOwnerTest() throws Exception {
+        assertStatements(get("/bookings/owner").header(OWNER_ID_HEADER, owner.getId())
+                .param("state", "ALL").param("from", "0").param("size", "20"), 1);
+    }
+
+    @Test
+    void getItemInfoTest() throws Exception {
+        assertStatements(get("/items/{id}", item.getId()).header(OWNER_ID_HEADER, owner.getId()), 3);
+    }
+
+    @Test
+    void getOwnerItemsTest() throws Exception {
+        assertStatements(get("/items").header(OWNER_ID_HEADER, owner.getId()), 3);
+    }
+
+    @Test
+    void searchTest() throws Exception {
+        assertStatements(get("/items/search").header(OWNER_ID_HEADER, booker.getId())
+                .param("text", "drill"), 1);
+    }
+
+    private void assertStatements(RequestBuilder request, long expected) throws Exception {
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount(), equalTo(expected));
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    private Booking newBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking newBooking = factory.getBooking(null, booker, item);
+        newBooking.setStart(start);
+        newBooking.setEnd(end);
+        newBooking.setStatus(Status.APPROVED);
+        return newBooking;
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.FreeInterval;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки занятости и календаря свободных окон вещи через {@link BookingAvailabilityIndex}
+ * и SQL-запросы по таблице bookings.
+ * Запуск: main-метод из тестового classpath модуля server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingAvailabilityBenchmark {
+
+    private static final int ITEMS = 100;
+    private static final int QUERIES = 1024;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final String OVERLAP_QUERY = "select exists(select 1 from bookings " +
+            "where item_id = ? and status in ('WAITING', 'APPROVED') and start_date < ? and end_date > ?)";
+    private static final String WINDOW_QUERY = "select start_date, end_date from bookings " +
+            "where item_id = ? and status in ('WAITING', 'APPROVED') and start_date < ? and end_date > ? " +
+            "order by start_date";
+    private static final int CALENDAR_DAYS = 30;
+
+    @Param({"100", "10000"})
+    private int bookingsPerItem;
+
+    private Connection connection;
+    private PreparedStatement overlapStatement;
+    private PreparedStatement windowStatement;
+    private BookingAvailabilityIndex index;
+    private long[] itemIds;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:availability_" + bookingsPerItem);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table bookings (id bigint primary key, item_id bigint not null, " +
+                    "start_date timestamp not null, end_date timestamp not null, status varchar(16) not null)");
+            statement.execute("create index ix_bookings_item_start on bookings (item_id, start_date)");
+        }
+        index = new BookingAvailabilityIndex(null);
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement("insert into bookings values (?, ?, ?, ?, ?)")) {
+            for (long itemId = 1; itemId <= ITEMS; itemId++) {
+                for (int i = 0; i < bookingsPerItem; i++) {
+                    LocalDateTime start = BASE.plusDays(2L * i);
+                    LocalDateTime end = start.plusDays(1);
+                    id++;
+                    index.tryReserve(itemId, id, start, end);
+                    insert.setLong(1, id);
+                    insert.setLong(2, itemId);
+                    insert.setTimestamp(3, Timestamp.valueOf(start));
+                    insert.setTimestamp(4, Timestamp.valueOf(end));
+                    insert.setString(5, "APPROVED");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        overlapStatement = connection.prepareStatement(OVERLAP_QUERY);
+        windowStatement = connection.prepareStatement(WINDOW_QUERY);
+
+        Random random = new Random(42);
+        itemIds = new long[QUERIES];
+        starts = new LocalDateTime[QUERIES];
+        ends = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            itemIds[i] = 1 + random.nextInt(ITEMS);
+            starts[i] = BASE.plusHours(random.nextInt(bookingsPerItem * 48));
+            ends[i] = starts[i].plusHours(12);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        overlapStatement.close();
+        windowStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean index() {
+        int i = next++ & (QUERIES - 1);
+        return index.isFree(itemIds[i], starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public boolean sqlOverlapQuery() throws SQLException {
+        int i = next++ & (QUERIES - 1);
+        overlapStatement.setLong(1, itemIds[i]);
+        overlapStatement.setTimestamp(2, Timestamp.valueOf(ends[i]));
+        overlapStatement.setTimestamp(3, Timestamp.valueOf(starts[i]));
+        try (ResultSet resultSet = overlapStatement.executeQuery()) {
+            resultSet.next();
+            return !resultSet.getBoolean(1);
+        }
+    }
+
+    /**
+     * Свободные окна за CALENDAR_DAYS дней из индекса
+     */
+    @Benchmark
+    public List<FreeInterval> indexFreeIntervals() {
+        int i = next++ & (QUERIES - 1);
+        return index.getFreeIntervals(itemIds[i], starts[i], starts[i].plusDays(CALENDAR_DAYS));
+    }
+
+    /**
+     * Те же окна из аренд, пересекающих период, с вычислением промежутков на клиенте
+     */
+    @Benchmark
+    public List<FreeInterval> sqlFreeIntervals() throws SQLException {
+        int i = next++ & (QUERIES - 1);
+        LocalDateTime from = starts[i];
+        LocalDateTime to = from.plusDays(CALENDAR_DAYS);
+        windowStatement.setLong(1, itemIds[i]);
+        windowStatement.setTimestamp(2, Timestamp.valueOf(to));
+        windowStatement.setTimestamp(3, Timestamp.valueOf(from));
+        List<FreeInterval> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        try (ResultSet resultSet = windowStatement.executeQuery()) {
+            while (resultSet.next()) {
+                LocalDateTime start = resultSet.getTimestamp(1).toLocalDateTime();
+                LocalDateTime end = resultSet.getTimestamp(2).toLocalDateTime();
+                if (start.isAfter(cursor)) {
+                    free.add(new FreeInterval(cursor, start));
+                }
+                if (end.isAfter(cursor)) {
+                    cursor = end;
+                }
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new FreeInterval(cursor, to));
+        }
+        return free;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingAvailabilityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
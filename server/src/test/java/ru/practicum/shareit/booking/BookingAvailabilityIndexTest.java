@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.FreeInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingAvailabilityIndexTest {
+    @InjectMocks
+    private BookingAvailabilityIndex index;
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingAvailabilityIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, 1L, base.plusDays(1), base.plusDays(3)),
+                        new BookingInterval(2L, 1L, base.plusDays(5), base.plusDays(6))));
+        index.rebuild();
+    }
+
+    @Test
+    void shouldFindOverlapsAfterRebuildTest() {
+        assertThat(index.isFree(1L, base, base.plusDays(1)), equalTo(true));
+        assertThat(index.isFree(1L, base, base.plusDays(2)), equalTo(false));
+        assertThat(index.isFree(1L, base.plusDays(2), base.plusDays(4)), equalTo(false));
+        assertThat(index.isFree(1L, base.plusDays(3), base.plusDays(5)), equalTo(true));
+        assertThat(index.isFree(1L, base, base.plusDays(10)), equalTo(false));
+        assertThat(index.isFree(2L, base, base.plusDays(10)), equalTo(true));
+
+        verify(bookingRepository, times(1)).findAllIntervalsByStatusIn(BookingAvailabilityIndex.BLOCKING_STATUSES);
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void shouldReserveOnlyFreeWindowTest() {
+        assertThat(index.tryReserve(1L, 3L, base.plusDays(2), base.plusDays(4)), equalTo(false));
+        assertThat(index.tryReserve(1L, 3L, base.plusDays(3), base.plusDays(5)), equalTo(true));
+        assertThat(index.isFree(1L, base.plusDays(3), base.plusDays(4)), equalTo(false));
+        assertThat(index.tryReserve(1L, 4L, base.plusHours(36), base.plusDays(2)), equalTo(false));
+    }
+
+    @Test
+    void shouldFindLongBookingBehindShortOnesTest() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingAvailabilityIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, 1L, base, base.plusDays(30)),
+                        new BookingInterval(2L, 1L, base.plusDays(1), base.plusDays(2))));
+        index.rebuild();
+
+        assertThat(index.isFree(1L, base.plusDays(10), base.plusDays(11)), equalTo(false));
+        assertThat(index.isFree(1L, base.plusDays(30), base.plusDays(31)), equalTo(true));
+    }
+
+    @Test
+    void shouldReleaseWindowTest() {
+        index.release(1L, 1L);
+
+        assertThat(index.isFree(1L, base.plusDays(1), base.plusDays(3)), equalTo(true));
+        assertThat(index.isFree(1L, base.plusDays(5), base.plusDays(6)), equalTo(false));
+    }
+
+    @Test
+    void shouldReleaseAllCascadedBookingsTest() {
+        index.releaseAll(List.of(
+                new BookingInterval(1L, 1L, base.plusDays(1), base.plusDays(3)),
+                new BookingInterval(2L, 1L, base.plusDays(5), base.plusDays(6))));
+
+        assertThat(index.isFree(1L, base, base.plusDays(10)), equalTo(true));
+    }
+
+    @Test
+    void shouldListFreeIntervalsTest() {
+        List<FreeInterval> free = index.getFreeIntervals(1L, base, base.plusDays(10));
+
+        assertThat(free.size(), equalTo(3));
+        assertInterval(free.get(0), base, base.plusDays(1));
+        assertInterval(free.get(1), base.plusDays(3), base.plusDays(5));
+        assertInterval(free.get(2), base.plusDays(6), base.plusDays(10));
+
+        List<FreeInterval> tail = index.getFreeIntervals(1L, base.plusDays(2), base.plusDays(7));
+        assertThat(tail.size(), equalTo(2));
+        assertInterval(tail.get(0), base.plusDays(3), base.plusDays(5));
+        assertInterval(tail.get(1), base.plusDays(6), base.plusDays(7));
+
+        assertThat(index.getFreeIntervals(1L, base.plusDays(1), base.plusDays(3)).isEmpty(), equalTo(true));
+        assertInterval(index.getFreeIntervals(2L, base, base.plusDays(1)).get(0), base, base.plusDays(1));
+    }
+
+    @Test
+    void shouldSkipShortBookingsInsideLongOneTest() {
+        when(bookingRepository.findAllIntervalsByStatusIn(BookingAvailabilityIndex.BLOCKING_STATUSES))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, 1L, base, base.plusDays(30)),
+                        new BookingInterval(2L, 1L, base.plusDays(1), base.plusDays(2)),
+                        new BookingInterval(3L, 1L, base.plusDays(40), base.plusDays(41))));
+        index.rebuild();
+
+        List<FreeInterval> free = index.getFreeIntervals(1L, base.plusDays(10), base.plusDays(50));
+
+        assertThat(free.size(), equalTo(2));
+        assertInterval(free.get(0), base.plusDays(30), base.plusDays(40));
+        assertInterval(free.get(1), base.plusDays(41), base.plusDays(50));
+    }
+
+    private void assertInterval(FreeInterval interval, LocalDateTime start, LocalDateTime end) {
+        assertThat(interval.getStart(), equalTo(start));
+        assertThat(interval.getEnd(), equalTo(end));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.constant.Constant.BOOKING_BATCH_MAX_SIZE;
+
+/**
+ * Пакетное оформление {@link ru.practicum.shareit.constant.Constant#BOOKING_BATCH_MAX_SIZE} аренд через
+ * {@link BookingService#addBookings} на H2 с JDBC batching (batchSize = hibernate.jdbc.batch_size, 0 - без него).
+ * Запуск: main-метод из тестового classpath модуля server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBatchInsertBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private Long bookerId;
+    private List<Long> itemIds;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "logging.level.ru.practicum=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        User owner = userRepository.save(newUser("owner"));
+        bookerId = userRepository.save(newUser("booker")).getId();
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < BOOKING_BATCH_MAX_SIZE; i++) {
+            Item item = new Item();
+            item.setName("Drill " + i);
+            item.setDescription("Drill");
+            item.setAvailable(true);
+            item.setOwner(owner);
+            itemIds.add(itemRepository.save(item).getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Каждый вызов бронирует все вещи на следующие сутки, чтобы аренды не пересекались
+     */
+    @Benchmark
+    public List<BookingBatchResult> addBookings() {
+        LocalDateTime start = BASE.plusDays(next++);
+        List<BookingDtoIn> bookings = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            BookingDtoIn booking = new BookingDtoIn();
+            booking.setItemId(itemId);
+            booking.setStart(start);
+            booking.setEnd(start.plusHours(12));
+            bookings.add(booking);
+        }
+        return bookingService.addBookings(bookerId, bookings);
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookingBatchInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
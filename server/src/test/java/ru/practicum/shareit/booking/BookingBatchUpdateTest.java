@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Массовое подтверждение на настоящей базе. SQL строится диалектом PostgreSQL (H2 в режиме PostgreSQL),
+ * чтобы проверить блокировку в том виде, в каком она уходит в прод
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-batch;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQL10Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.booking.BookingBatchUpdateTest$SqlCapture"
+})
+public class BookingBatchUpdateTest {
+
+    private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+
+    private User owner;
+    private Booking waiting;
+    private Booking approved;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser("owner"));
+        User booker = userRepository.save(newUser("booker"));
+        Item item = itemRepository.save(factory.getItem(null, owner));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        waiting = bookingRepository.save(newBooking(item, booker, start, Status.WAITING));
+        approved = bookingRepository.save(newBooking(item, booker, start.plusDays(2), Status.APPROVED));
+        CAPTURED.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldLockOnlyBookingsAndUpdateWaitingTest() {
+        List<BookingBatchResult> results = bookingService.updateBookings(owner.getId(),
+                List.of(waiting.getId(), approved.getId(), -1L), true);
+
+        assertThat(results.get(0).getStatus(), equalTo(HttpStatus.OK));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(Status.APPROVED));
+        assertThat(results.get(1).getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(results.get(2).getStatus(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(bookingRepository.findById(waiting.getId()).orElseThrow().getStatus(), equalTo(Status.APPROVED));
+
+        List<String> locking = CAPTURED.stream()
+                .filter(sql -> sql.contains("for update"))
+                .collect(Collectors.toList());
+        assertThat(locking, hasSize(1));
+        assertThat(locking.get(0), not(containsString("join")));
+        assertThat(locking.get(0), containsString("for update of booking0_"));
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@batch.ru");
+        return user;
+    }
+
+    private Booking newBooking(Item item, User booker, LocalDateTime start, Status status) {
+        Booking booking = factory.getBooking(null, booker, item);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            CAPTURED.add(sql.replaceAll("\\s+", " "));
+            return sql;
+        }
+    }
+}
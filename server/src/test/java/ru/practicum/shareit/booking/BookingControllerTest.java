@@ -6,13 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.constant.State;
 import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -41,6 +44,36 @@ public class BookingControllerTest {
 
     private final ModelFactory factory = ModelFactory.getInstance();
 
+    @Test
+    void shouldCreateBatchTest() throws Exception {
+        Long userId = 1L;
+        LocalDateTime time = LocalDateTime.now();
+        BookingDtoIn requestDto = factory.getBookingDtoIn(time);
+        requestDto.setItemId(1L);
+
+        BookingDtoOut responseDto = factory.getBookingResponseDto(1L, time);
+
+        when(bookingService.addBookings(eq(userId), anyList())).thenReturn(List.of(
+                BookingBatchResult.created(0, responseDto),
+                BookingBatchResult.failed(1, HttpStatus.NOT_FOUND, "Item not found.")));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(OWNER_ID_HEADER, userId)
+                        .content(objectMapper.writeValueAsString(List.of(requestDto, requestDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].booking.id").value(responseDto.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].error").value("Item not found."));
+
+        verify(bookingService, times(1)).addBookings(eq(userId), anyList());
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     void shouldCreateTest() throws Exception {
         Long userId = 1L;
@@ -155,4 +188,53 @@ public class BookingControllerTest {
                 .updateBooking(eq(userId), eq(responseDto.getId()), anyBoolean());
         verifyNoMoreInteractions(bookingService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetPageAfterCursorTest() throws Exception {
+        Long userId = 1L;
+        LocalDateTime time = LocalDateTime.now();
+        BookingDtoOut responseDto = factory.getBookingResponseDto(1L, time);
+
+        when(bookingService.getBookingsByUserAfterCursor(eq(userId), eq(State.ALL), eq(""), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(responseDto), "next"));
+        when(bookingService.getBookingsByOwnerAfterCursor(eq(userId), eq(State.PAST), eq("next"), eq(5)))
+                .thenReturn(new CursorPage<>(List.of(responseDto), null));
+
+        mockMvc.perform(get("/bookings")
+                        .header(OWNER_ID_HEADER, userId)
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(responseDto.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(OWNER_ID_HEADER, userId)
+                        .param("state", "PAST")
+                        .param("cursor", "next")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(responseDto.getId()));
+
+        verify(bookingService, times(1))
+                .getBookingsByUserAfterCursor(eq(userId), eq(State.ALL), eq(""), eq(20));
+        verify(bookingService, times(1))
+                .getBookingsByOwnerAfterCursor(eq(userId), eq(State.PAST), eq("next"), eq(5));
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void shouldRejectOversizedCursorPageTest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("cursor", "")
+                        .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/bookings/owner")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("cursor", "")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+}
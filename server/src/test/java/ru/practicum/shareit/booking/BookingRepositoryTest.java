@@ -0,0 +1,210 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.HibernateCacheConfig;
+import ru.practicum.shareit.constant.State;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.*;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+public class BookingRepositoryTest {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+    private Booking rejected;
+    private Booking foreign;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(newUser("owner"));
+        booker = entityManager.persist(newUser("booker"));
+        item = factory.getItem(null, owner);
+        item = entityManager.persist(item);
+        Item otherItem = entityManager.persist(factory.getItem(null, booker));
+
+        past = entityManager.persist(newBooking(item, now.minusDays(10), now.minusDays(9), Status.APPROVED));
+        current = entityManager.persist(newBooking(item, now.minusDays(1), now.plusDays(1), Status.APPROVED));
+        future = entityManager.persist(newBooking(item, now.plusDays(5), now.plusDays(6), Status.WAITING));
+        rejected = entityManager.persist(newBooking(item, now.plusDays(7), now.plusDays(8), Status.REJECTED));
+        foreign = newBooking(otherItem, now.plusDays(1), now.plusDays(2), Status.WAITING);
+        foreign.setBooker(owner);
+        entityManager.persist(foreign);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldFindBookingsCascadedWithUserTest() {
+        List<Long> ids = bookingRepository.findAllIntervalsByUserIdAndStatusIn(owner.getId(),
+                        BookingAvailabilityIndex.BLOCKING_STATUSES).stream()
+                .map(BookingInterval::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ids, containsInAnyOrder(past.getId(), current.getId(), future.getId(), foreign.getId()));
+    }
+
+    @Test
+    void shouldFindBookingsOfAnswersToUserRequestsTest() {
+        User requester = entityManager.persist(newUser("requester"));
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequester(requester);
+        request.setCreated(now);
+        request = entityManager.persist(request);
+        Item answer = factory.getItem(null, owner);
+        answer.setRequest(request);
+        answer = entityManager.persist(answer);
+        Booking answerBooking = entityManager.persist(newBooking(answer, now.plusDays(3), now.plusDays(4),
+                Status.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids = bookingRepository.findAllIntervalsByUserIdAndStatusIn(requester.getId(),
+                        BookingAvailabilityIndex.BLOCKING_STATUSES).stream()
+                .map(BookingInterval::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ids, contains(answerBooking.getId()));
+    }
+
+    @Test
+    void shouldFilterByStateForBookerTest() {
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.ALL, now))),
+                contains(rejected.getId(), future.getId(), current.getId(), past.getId()));
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.CURRENT, now))), contains(current.getId()));
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.PAST, now))), contains(past.getId()));
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.FUTURE, now))),
+                contains(rejected.getId(), future.getId()));
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.WAITING, now))), contains(future.getId()));
+        assertThat(ids(byBooker(booker.getId()).and(inState(State.REJECTED, now))), contains(rejected.getId()));
+    }
+
+    @Test
+    void shouldFilterByOwnerItemAndPeriodTest() {
+        assertThat(ids(byOwner(owner.getId()).and(inState(State.ALL, now))),
+                contains(rejected.getId(), future.getId(), current.getId(), past.getId()));
+        assertThat(ids(byOwner(owner.getId()).and(byItem(item.getId()))
+                        .and(overlapping(now, now.plusDays(6)))),
+                contains(future.getId(), current.getId()));
+    }
+
+    @Test
+    void shouldPageByOffsetAndCursorTest() {
+        List<Booking> page = bookingRepository.findAll(byBooker(booker.getId()), SORT, 1, 2);
+        assertThat(page.stream().map(Booking::getId).collect(Collectors.toList()),
+                contains(future.getId(), current.getId()));
+
+        Booking last = page.get(1);
+        List<Booking> next = bookingRepository.findAll(byBooker(booker.getId())
+                .and(beforeCursor(new Cursor(last.getStart(), last.getId()))), SORT, 0, 2);
+        assertThat(next.stream().map(Booking::getId).collect(Collectors.toList()), contains(past.getId()));
+    }
+
+    @Test
+    void shouldFindLastAndNextApprovedBookingsTest() {
+        Booking olderPast = entityManager.persist(newBooking(entityManager.find(Item.class, item.getId()),
+                now.minusDays(20), now.minusDays(19), Status.APPROVED));
+        Booking next = entityManager.persist(newBooking(entityManager.find(Item.class, item.getId()),
+                now.plusDays(3), now.plusDays(4), Status.APPROVED));
+        Booking later = entityManager.persist(newBooking(entityManager.find(Item.class, item.getId()),
+                now.plusDays(9), now.plusDays(10), Status.APPROVED));
+        entityManager.flush();
+
+        List<Long> ids = bookingRepository.findLastAndNextApprovedByItemIdIn(List.of(item.getId()), now).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ids, containsInAnyOrder(past.getId(), next.getId()));
+        assertThat(ids, not(hasItems(olderPast.getId(), later.getId(), current.getId(), future.getId())));
+    }
+
+    @Test
+    void shouldFetchItemOwnerAndBookerTest() {
+        List<Booking> bookings = bookingRepository.findAll(byOwner(owner.getId()), SORT, 0, 20);
+
+        assertThat(bookings.size(), equalTo(4));
+        for (Booking booking : bookings) {
+            assertThat(Hibernate.isInitialized(booking.getItem()), equalTo(true));
+            assertThat(Hibernate.isInitialized(booking.getItem().getOwner()), equalTo(true));
+            assertThat(Hibernate.isInitialized(booking.getBooker()), equalTo(true));
+        }
+    }
+
+    @Test
+    void shouldUpdateOnlyWaitingBookingsOfOwnerTest() {
+        Long foreignId = bookingRepository.findAll(byOwner(booker.getId()), SORT, 0, 1).get(0).getId();
+
+        int updated = bookingRepository.updateWaitingStatusByOwner(
+                List.of(future.getId(), rejected.getId(), current.getId(), foreignId), owner.getId(), Status.APPROVED);
+
+        assertThat(updated, equalTo(1));
+        assertThat(bookingRepository.findById(future.getId()).orElseThrow().getStatus(), equalTo(Status.APPROVED));
+        assertThat(bookingRepository.findById(rejected.getId()).orElseThrow().getStatus(), equalTo(Status.REJECTED));
+        assertThat(bookingRepository.findById(foreignId).orElseThrow().getStatus(), equalTo(Status.WAITING));
+    }
+
+    private List<Long> ids(Specification<Booking> specification) {
+        return bookingRepository.findAll(specification, SORT, 0, 20).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    private Booking newBooking(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = factory.getBooking(null, booker, item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        return booking;
+    }
+}
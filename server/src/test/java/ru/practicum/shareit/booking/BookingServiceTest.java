@@ -5,33 +5,43 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.constant.State;
 import ru.practicum.shareit.constant.Status;
 import ru.practicum.shareit.error.BadRequestException;
+import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static ru.practicum.shareit.constant.Constant.BOOKING_BATCH_MAX_SIZE;
 import static ru.practicum.shareit.constant.State.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +54,8 @@ public class BookingServiceTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
 
     private final ModelFactory factory = ModelFactory.getInstance();
 
@@ -63,6 +75,7 @@ public class BookingServiceTest {
         when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
         when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityIndex.tryReserve(eq(item.getId()), eq(booking.getId()), any(), any())).thenReturn(true);
 
         BookingDtoOut responseDto = bookingService.addBooking(booker.getId(), requestDto);
 
@@ -75,7 +88,36 @@ public class BookingServiceTest {
         verify(userRepository, times(1)).findById(eq(booker.getId()));
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(bookingRepository, times(1)).save(any(Booking.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verify(availabilityIndex, times(1)).tryReserve(eq(item.getId()), eq(booking.getId()), any(), any());
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, availabilityIndex);
+    }
+
+    @Test
+    void shouldNotCreateOverlappingBookingTest() {
+        User owner = factory.getUser(1L);
+        User booker = factory.getUser(2L);
+
+        Item item = factory.getItem(1L, owner);
+
+        Booking booking = factory.getBooking(1L, booker, item);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingDtoIn requestDto = factory.getBookingDtoIn(now);
+        requestDto.setItemId(item.getId());
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityIndex.tryReserve(eq(item.getId()), eq(booking.getId()), any(), any())).thenReturn(false);
+
+        ConflictException e = assertThrows(ConflictException.class, () ->
+                bookingService.addBooking(booker.getId(), requestDto));
+
+        assertThat(e.getMessage(), equalTo("Item is already booked for these dates."));
+
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(availabilityIndex, times(1)).tryReserve(eq(item.getId()), eq(booking.getId()), any(), any());
+        verifyNoMoreInteractions(bookingRepository, availabilityIndex);
     }
 
     @Test
@@ -150,6 +192,65 @@ public class BookingServiceTest {
         verifyNoInteractions(itemRepository);
     }
 
+    @Test
+    void shouldCreateBatchWithPerEntryResultsTest() {
+        User owner = factory.getUser(1L);
+        User booker = factory.getUser(2L);
+
+        Item item = factory.getItem(1L, owner);
+        Item bookedItem = factory.getItem(2L, owner);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingDtoIn freeDto = factory.getBookingDtoIn(now);
+        freeDto.setItemId(item.getId());
+        BookingDtoIn missingDto = factory.getBookingDtoIn(now);
+        missingDto.setItemId(99L);
+        BookingDtoIn bookedDto = factory.getBookingDtoIn(now);
+        bookedDto.setItemId(bookedItem.getId());
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(item, bookedItem));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(i + 1L);
+            }
+            return bookings;
+        });
+        when(availabilityIndex.tryReserve(eq(item.getId()), eq(1L), any(), any())).thenReturn(true);
+        when(availabilityIndex.tryReserve(eq(bookedItem.getId()), eq(2L), any(), any())).thenReturn(false);
+
+        List<BookingBatchResult> results = bookingService.addBookings(booker.getId(),
+                List.of(freeDto, missingDto, bookedDto));
+
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(0).getStatus(), equalTo(HttpStatus.CREATED));
+        assertThat(results.get(0).getBooking().getId(), equalTo(1L));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(Status.WAITING));
+        assertThat(results.get(1).getStatus(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(results.get(1).getError(), equalTo("Item not found."));
+        assertThat(results.get(2).getIndex(), equalTo(2));
+        assertThat(results.get(2).getStatus(), equalTo(HttpStatus.CONFLICT));
+        assertThat(results.get(2).getBooking(), nullValue());
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findAllByIdIn(anyCollection());
+        verify(bookingRepository, times(1)).saveAll(anyList());
+        verify(bookingRepository, times(1)).deleteAllInBatch(anyList());
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void shouldNotCreateTooLargeBatchTest() {
+        List<BookingDtoIn> bookingDtoIns = Collections.nCopies(BOOKING_BATCH_MAX_SIZE + 1,
+                factory.getBookingDtoIn(LocalDateTime.now()));
+
+        assertThrows(BadRequestException.class, () -> bookingService.addBookings(1L, bookingDtoIns));
+        assertThrows(BadRequestException.class, () -> bookingService.addBookings(1L, List.of()));
+
+        verifyNoInteractions(userRepository, itemRepository, bookingRepository);
+    }
+
     @Test
     void shouldGetByIdTest() {
         User owner = factory.getUser(1L);
@@ -215,51 +316,24 @@ public class BookingServiceTest {
         );
 
         when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
-        when(bookingRepository.findByBooker_IdOrderByEndDesc(
-                eq(booker.getId()), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findByBooker_IdAndEndIsBefore(
-                eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findByBooker_IdAndStartIsAfter(
-                eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAll(any(Specification.class), any(Sort.class), eq(10L), eq(10)))
                 .thenReturn(bookingList);
-        when(bookingRepository.findByBooker_IdAndStatusOrderByEndDesc(
-                eq(booker.getId()), eq(Status.WAITING), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findByBooker_IdAndStatusOrderByEndDesc(
-                eq(booker.getId()), eq(Status.REJECTED), any(Pageable.class))).thenReturn(bookingList);
 
         List<BookingDtoOut> responseDtoList;
 
-        responseDtoList = bookingService.getAllBookingsByUser(booker.getId(), ALL, 0, 10);
-        bookingService.getAllBookingsByUser(booker.getId(), PAST, 0, 10);
-        bookingService.getAllBookingsByUser(booker.getId(), FUTURE, 0, 10);
-        bookingService.getAllBookingsByUser(booker.getId(), CURRENT, 0, 10);
-        bookingService.getAllBookingsByUser(booker.getId(), WAITING, 0, 10);
-        bookingService.getAllBookingsByUser(booker.getId(), REJECTED, 0, 10);
+        responseDtoList = bookingService.getAllBookingsByUser(booker.getId(), ALL, 10, 10);
+        bookingService.getAllBookingsByUser(booker.getId(), PAST, 10, 10);
+        bookingService.getAllBookingsByUser(booker.getId(), FUTURE, 10, 10);
+        bookingService.getAllBookingsByUser(booker.getId(), CURRENT, 10, 10);
+        bookingService.getAllBookingsByUser(booker.getId(), WAITING, 10, 10);
+        bookingService.getAllBookingsByUser(booker.getId(), REJECTED, 10, 10);
 
         assertThat(responseDtoList.get(0).getId(), equalTo(booking1.getId()));
         assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
 
         verify(userRepository, times(6)).findById(eq(booker.getId()));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdOrderByEndDesc(
-                        eq(booker.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdAndEndIsBefore(
-                        eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdAndStartIsAfter(
-                        eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                        eq(booker.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdAndStatusOrderByEndDesc(
-                        eq(booker.getId()), eq(Status.WAITING), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findByBooker_IdAndStatusOrderByEndDesc(
-                        eq(booker.getId()), eq(Status.REJECTED), any(Pageable.class));
+        verify(bookingRepository, times(6))
+                .findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "start", "id")), eq(10L), eq(10));
 
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
@@ -305,20 +379,8 @@ public class BookingServiceTest {
         );
 
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItem_OwnerId(eq(owner.getId()), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItem_OwnerIdAndStartIsBeforeAndEndIsBeforeOrderByEndDesc(
-                eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(bookingList);
-        when(bookingRepository.findAllByItem_OwnerIdAndStartIsAfterAndEndIsAfterOrderByEndDesc(
-                eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(bookingList);
-        when(bookingRepository.findAllByItem_OwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingRepository.findAll(any(Specification.class), any(Sort.class), eq(0L), eq(10)))
                 .thenReturn(bookingList);
-        when(bookingRepository.findAllByItem_OwnerIdAndStatus(
-                eq(owner.getId()), eq(Status.WAITING), any(Pageable.class))).thenReturn(bookingList);
-        when(bookingRepository.findAllByItem_OwnerIdAndStatus(
-                eq(owner.getId()), eq(Status.REJECTED), any(Pageable.class))).thenReturn(bookingList);
 
         List<BookingDtoOut> responseDtoList;
 
@@ -333,21 +395,8 @@ public class BookingServiceTest {
         assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
 
         verify(userRepository, times(6)).findById(eq(owner.getId()));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerId(eq(owner.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerIdAndStartIsBeforeAndEndIsBeforeOrderByEndDesc(
-                        eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerIdAndStartIsAfterAndEndIsAfterOrderByEndDesc(
-                        eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerIdAndStartIsBeforeAndEndIsAfterOrderByEndDesc(
-                        eq(owner.getId()), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerIdAndStatus(eq(owner.getId()), eq(Status.WAITING), any(Pageable.class));
-        verify(bookingRepository, times(1))
-                .findAllByItem_OwnerIdAndStatus(eq(owner.getId()), eq(Status.REJECTED), any(Pageable.class));
+        verify(bookingRepository, times(6))
+                .findAll(any(Specification.class), eq(Sort.by(Sort.Direction.DESC, "start", "id")), eq(0L), eq(10));
 
         verifyNoMoreInteractions(userRepository, bookingRepository);
     }
@@ -401,7 +450,69 @@ public class BookingServiceTest {
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
         verify(bookingRepository, times(1)).save(any(Booking.class));
-        verifyNoMoreInteractions(bookingRepository);
+        verify(availabilityIndex, times(1)).release(eq(item.getId()), eq(booking.getId()));
+        verifyNoMoreInteractions(bookingRepository, availabilityIndex);
+    }
+
+    @Test
+    void shouldUpdateBatchWithPerIdResultsTest() {
+        User owner = factory.getUser(1L);
+        User booker = factory.getUser(2L);
+
+        Item item = factory.getItem(1L, owner);
+        Item foreignItem = factory.getItem(2L, booker);
+
+        Booking waiting = factory.getBooking(1L, booker, item);
+        waiting.setStatus(Status.WAITING);
+        Booking approved = factory.getBooking(2L, booker, item);
+        approved.setStatus(Status.APPROVED);
+        Booking foreign = factory.getBooking(3L, owner, foreignItem);
+        foreign.setStatus(Status.WAITING);
+
+        when(bookingRepository.findAllLockedByIdIn(anyCollection())).thenReturn(List.of(waiting, approved, foreign));
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(waiting, approved, foreign));
+        when(bookingRepository.updateWaitingStatusByOwner(eq(Set.of(waiting.getId())), eq(owner.getId()),
+                eq(Status.REJECTED))).thenReturn(1);
+
+        List<BookingBatchResult> results = bookingService.updateBookings(owner.getId(), List.of(1L, 2L, 3L, 4L),
+                false);
+
+        assertThat(results.get(0).getStatus(), equalTo(HttpStatus.OK));
+        assertThat(results.get(0).getBooking().getStatus(), equalTo(Status.REJECTED));
+        assertThat(results.get(1).getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(results.get(1).getError(), equalTo("This booking has already been updated to: APPROVED"));
+        assertThat(results.get(2).getStatus(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(results.get(3).getStatus(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(results.get(3).getError(), equalTo("Booking not found."));
+
+        verify(bookingRepository, times(1)).findAllLockedByIdIn(anyCollection());
+        verify(bookingRepository, times(1)).findAllByIdIn(anyCollection());
+        verify(bookingRepository, times(1)).updateWaitingStatusByOwner(eq(Set.of(waiting.getId())),
+                eq(owner.getId()), eq(Status.REJECTED));
+        verify(availabilityIndex, times(1)).release(eq(item.getId()), eq(waiting.getId()));
+        verifyNoMoreInteractions(bookingRepository, availabilityIndex);
+    }
+
+    @Test
+    void shouldFailBatchWhenUpdateMissesRowsTest() {
+        User owner = factory.getUser(1L);
+        User booker = factory.getUser(2L);
+        Item item = factory.getItem(1L, owner);
+        Booking first = factory.getBooking(1L, booker, item);
+        first.setStatus(Status.WAITING);
+        Booking second = factory.getBooking(2L, booker, item);
+        second.setStatus(Status.WAITING);
+
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(first, second));
+        when(bookingRepository.updateWaitingStatusByOwner(eq(Set.of(1L, 2L)), eq(owner.getId()),
+                eq(Status.APPROVED))).thenReturn(1);
+
+        ConflictException e = assertThrows(ConflictException.class, () ->
+                bookingService.updateBookings(owner.getId(), List.of(1L, 2L), true));
+
+        assertThat(e.getMessage(), equalTo("Bookings were changed concurrently, 1 of 2 could be updated. "
+                + "Please retry."));
+        verifyNoInteractions(availabilityIndex);
     }
 
     @Test
@@ -446,4 +557,61 @@ public class BookingServiceTest {
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
         verifyNoMoreInteractions(bookingRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetPageAfterCursorTest() {
+        User owner = factory.getUser(1L);
+        User booker = factory.getUser(2L);
+
+        Item item = factory.getItem(1L, owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        Booking booking1 = factory.getBooking(5L, booker, item);
+        booking1.setStart(start);
+        booking1.setEnd(start.plusDays(1));
+        Booking booking2 = factory.getBooking(4L, booker, item);
+        booking2.setStart(start.minusDays(1));
+        booking2.setEnd(start);
+        Booking booking3 = factory.getBooking(3L, booker, item);
+        booking3.setStart(start.minusDays(2));
+        booking3.setEnd(start.minusDays(1));
+
+        Cursor cursor = new Cursor(start.plusDays(5), 6L);
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(bookingRepository.findAll(any(Specification.class), any(Sort.class), eq(0L), eq(3)))
+                .thenReturn(Arrays.asList(booking1, booking2, booking3))
+                .thenReturn(List.of(booking1));
+
+        CursorPage<BookingDtoOut> page = bookingService.getBookingsByUserAfterCursor(
+                booker.getId(), FUTURE, cursor.encode(), 2);
+        CursorPage<BookingDtoOut> ownerPage = bookingService.getBookingsByOwnerAfterCursor(
+                owner.getId(), WAITING, "", 2);
+
+        assertThat(page.getContent().size(), equalTo(2));
+        assertThat(page.getContent().get(0).getId(), equalTo(booking1.getId()));
+        assertThat(page.getContent().get(1).getId(), equalTo(booking2.getId()));
+        Cursor next = Cursor.decode(page.getNextCursor());
+        assertThat(next.getSortKey(), equalTo(booking2.getStart()));
+        assertThat(next.getId(), equalTo(booking2.getId()));
+        assertThat(ownerPage.getContent().size(), equalTo(1));
+        assertThat(ownerPage.getNextCursor(), nullValue());
+
+        verify(bookingRepository, times(2)).findAll(any(Specification.class), any(Sort.class), eq(0L), eq(3));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+
+    @Test
+    void shouldThrowBadRequestByInvalidCursorTest() {
+        User booker = factory.getUser(2L);
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+
+        BadRequestException e = assertThrows(BadRequestException.class, () ->
+                bookingService.getBookingsByUserAfterCursor(booker.getId(), ALL, "not-a-cursor", 10));
+
+        assertThat(e.getMessage(), equalTo("Invalid cursor: not-a-cursor"));
+        verifyNoInteractions(bookingRepository);
+    }
+}
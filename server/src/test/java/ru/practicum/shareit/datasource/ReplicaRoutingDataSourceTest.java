@@ -0,0 +1,126 @@
+package ru.practicum.shareit.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica";
+
+    private final DataSource primary = h2(PRIMARY_URL);
+    private final DataSource replica = h2(REPLICA_URL);
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.exit();
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void shouldRouteOnlyReadOnlyRequestTransactionsToReplicaTest() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica), Duration.ZERO);
+
+        assertThat(readOnlyUrl(routing), equalTo(PRIMARY_URL));
+        ReplicaRoutingContext.enter(1L);
+        assertThat(url(routing), equalTo(PRIMARY_URL));
+        assertThat(readOnlyUrl(routing), equalTo(REPLICA_URL));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryWithinWindowTest() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica), Duration.ofMinutes(1));
+        ReplicaRoutingContext.enter(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(url(routing), equalTo(PRIMARY_URL));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(readOnlyUrl(routing), equalTo(PRIMARY_URL));
+        ReplicaRoutingContext.enter(2L);
+        assertThat(readOnlyUrl(routing), equalTo(REPLICA_URL));
+    }
+
+    @Test
+    void shouldSkipUnhealthyReplicaTest() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(failing(), replica), Duration.ZERO);
+        routing.checkReplicas();
+        ReplicaRoutingContext.enter(1L);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(readOnlyUrl(routing), equalTo(REPLICA_URL));
+        }
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaFailsTest() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(failing()), Duration.ZERO);
+        ReplicaRoutingContext.enter(1L);
+
+        assertThat(readOnlyUrl(routing), equalTo(PRIMARY_URL));
+        assertThat(readOnlyUrl(routing), equalTo(PRIMARY_URL));
+    }
+
+    @Test
+    void shouldRouteConnectionsWithCredentialsLikeDefaultOnesTest() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(List.of(replica), Duration.ZERO);
+        ReplicaRoutingContext.enter(1L);
+
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL(), equalTo(PRIMARY_URL));
+            assertThat(connection.getMetaData().getUserName(), equalTo("SA"));
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getMetaData().getURL(), equalTo(REPLICA_URL));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private ReplicaRoutingDataSource routing(List<DataSource> replicas, Duration readYourWritesWindow) {
+        return new ReplicaRoutingDataSource(primary, replicas, Duration.ofHours(1), readYourWritesWindow);
+    }
+
+    private String readOnlyUrl(DataSource dataSource) throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return url(dataSource);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private String url(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return dataSource;
+    }
+
+    private static DataSource failing() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Replica is down"));
+        return dataSource;
+    }
+}
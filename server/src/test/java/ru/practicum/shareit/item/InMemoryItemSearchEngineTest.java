@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.IndexedItem;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+    @InjectMocks
+    private InMemoryItemSearchEngine engine;
+    @Mock
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllIndexed()).thenReturn(List.of(
+                new IndexedItem(1L, "Hammer", "Works with any drill-bit"),
+                new IndexedItem(2L, "Cordless Drill", "18V"),
+                new IndexedItem(3L, "Drill press", "Bench"),
+                new IndexedItem(4L, "DRILL", "Old one"),
+                new IndexedItem(5L, "Saw", "Sharp")));
+        engine.rebuild();
+    }
+
+    @Test
+    void shouldRankLikeDatabaseSearchTest() {
+        assertThat(engine.searchIds("drill", 0, 10), contains(4L, 3L, 2L, 1L));
+        assertThat(engine.searchIds("Drill", 1, 2), contains(3L, 2L));
+    }
+
+    @Test
+    void shouldMatchSubstringsAndPhrasesTest() {
+        assertThat(engine.searchIds("RIL", 0, 10), contains(2L, 3L, 4L, 1L));
+        assertThat(engine.searchIds("aw", 0, 10), contains(5L));
+        assertThat(engine.searchIds("less dr", 0, 10), contains(2L));
+        assertThat(engine.searchIds("drill-b", 0, 10), contains(1L));
+        assertThat(engine.searchIds("drill b", 0, 10), empty());
+        assertThat(engine.searchIds("nothing", 0, 10), empty());
+    }
+
+    @Test
+    void shouldApplySavedItemsTest() {
+        engine.onItemSaved(item(5L, "Chainsaw", "Gas", true));
+        engine.onItemSaved(item(6L, "Saw horse", "Pair", true));
+        engine.onItemSaved(item(2L, "Cordless Drill", "18V", false));
+
+        assertThat(engine.searchIds("saw", 0, 10), contains(6L, 5L));
+        assertThat(engine.searchIds("sharp", 0, 10), empty());
+        assertThat(engine.searchIds("cordless", 0, 10), empty());
+    }
+
+    @Test
+    void shouldDropCascadeDeletedItemsTest() {
+        engine.onItemsDeleted(List.of(1L, 2L, 42L));
+
+        assertThat(engine.searchIds("drill", 0, 10), contains(4L, 3L));
+        assertThat(engine.searchIds("hammer", 0, 10), empty());
+    }
+
+    @Test
+    void shouldLoadFoundItemsInRankOrderTest() {
+        Item pressItem = item(3L, "Drill press", "Bench", true);
+        Item exactItem = item(4L, "DRILL", "Old one", true);
+        when(itemRepository.findAllByIdIn(List.of(4L, 3L))).thenReturn(List.of(pressItem, exactItem));
+
+        assertThat(engine.search("drill", 0, 2), contains(exactItem, pressItem));
+    }
+
+    @Test
+    void shouldStartPageAtOffsetTest() {
+        Item pressItem = item(3L, "Drill press", "Bench", true);
+        Item cordlessItem = item(2L, "Cordless Drill", "18V", true);
+        when(itemRepository.findAllByIdIn(List.of(3L, 2L))).thenReturn(List.of(cordlessItem, pressItem));
+
+        assertThat(engine.search("drill", 1, 2), contains(pressItem, cordlessItem));
+    }
+
+    private Item item(Long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
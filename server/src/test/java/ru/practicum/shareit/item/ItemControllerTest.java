@@ -7,20 +7,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.modelFactory.ModelFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.practicum.shareit.constant.Constant.*;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -115,15 +117,65 @@ public class ItemControllerTest {
                 responseDto2
         );
 
-        when(itemService.getOwnerItems(eq(userId))).thenReturn(responseDtoList);
+        when(itemService.getOwnerItems(eq(userId), eq(0), eq(2))).thenReturn(responseDtoList);
 
         mockMvc.perform(get("/items")
-                        .header(OWNER_ID_HEADER, userId))
+                        .header(OWNER_ID_HEADER, userId)
+                        .param("from", "0")
+                        .param("size", "2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(responseDto1.getId()))
                 .andExpect(jsonPath("$[1].id").value(responseDto2.getId()));
 
-        verify(itemService, times(1)).getOwnerItems(eq(userId));
+        verify(itemService, times(1)).getOwnerItems(eq(userId), eq(0), eq(2));
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void shouldRejectInvalidOwnerItemsPageTest() throws Exception {
+        mockMvc.perform(get("/items")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void shouldRejectInvalidSearchPageTest() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void shouldExportOwnerItemsAsNdjsonTest() throws Exception {
+        Long userId = 1L;
+        ItemDto responseDto1 = getItemResponseDto(10L);
+        ItemDto responseDto2 = getItemResponseDto(11L);
+
+        when(itemService.getOwnerItemsAfter(eq(userId), eq(0L), anyInt()))
+                .thenReturn(List.of(responseDto1, responseDto2));
+
+        MvcResult result = mockMvc.perform(get("/items/export")
+                        .header(OWNER_ID_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(responseDto1) + "\n"
+                        + objectMapper.writeValueAsString(responseDto2) + "\n"));
+
+        verify(itemService, times(1)).getOwnerItemsAfter(eq(userId), eq(0L), anyInt());
         verifyNoMoreInteractions(itemService);
     }
 
@@ -137,7 +189,7 @@ public class ItemControllerTest {
                 responseDto2
         );
 
-        when(itemService.getItemsByKeyword(anyString())).thenReturn(responseDtoList);
+        when(itemService.getItemsByKeyword(anyString(), eq(0), eq(20))).thenReturn(responseDtoList);
 
         mockMvc.perform(get("/items/search")
                         .param("text", "someText"))
@@ -145,7 +197,29 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].id").value(responseDto1.getId()))
                 .andExpect(jsonPath("$[1].id").value(responseDto2.getId()));
 
-        verify(itemService, times(1)).getItemsByKeyword(eq("someText"));
+        verify(itemService, times(1)).getItemsByKeyword(eq("someText"), eq(0), eq(20));
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void shouldGetAvailabilityTest() throws Exception {
+        Long itemId = 10L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(10);
+        FreeIntervalDto free = new FreeIntervalDto();
+        free.setStart(from.plusDays(3));
+        free.setEnd(to);
+
+        when(itemService.getAvailability(eq(itemId), eq(from), eq(to))).thenReturn(List.of(free));
+
+        mockMvc.perform(get("/items/" + itemId + "/availability")
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-11T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-04T12:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-11T12:00:00"));
+
+        verify(itemService, times(1)).getAvailability(eq(itemId), eq(from), eq(to));
         verifyNoMoreInteractions(itemService);
     }
 
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.config.HibernateCacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+public class ItemRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final ModelFactory factory = ModelFactory.getInstance();
+
+    private Item inDescription;
+    private Item inName;
+    private Item namePrefix;
+    private Item exactName;
+
+    @BeforeEach
+    void setUp() {
+        User owner = factory.getUser(null);
+        owner.setEmail("owner@mail.ru");
+        owner = entityManager.persist(owner);
+        inDescription = entityManager.persist(newItem(owner, "Hammer", "Works with any drill bit", true));
+        inName = entityManager.persist(newItem(owner, "Cordless Drill", "18V", true));
+        namePrefix = entityManager.persist(newItem(owner, "Drill press", "Bench", true));
+        exactName = entityManager.persist(newItem(owner, "drill", "Old one", true));
+        entityManager.persist(newItem(owner, "Drill", "Broken", false));
+        entityManager.persist(newItem(owner, "Saw", "Sharp", true));
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldRankByWhereTextMatchesTest() {
+        assertThat(ids(itemRepository.search("DRILL", PageRequest.of(0, 10))),
+                contains(exactName.getId(), namePrefix.getId(), inName.getId(), inDescription.getId()));
+    }
+
+    @Test
+    void shouldPageRankedResultsTest() {
+        assertThat(ids(itemRepository.search("drill", PageRequest.of(1, 2))),
+                contains(inName.getId(), inDescription.getId()));
+    }
+
+    @Test
+    void shouldStartRankedPageAtOffsetTest() {
+        assertThat(ids(itemRepository.search("drill", OffsetPageRequest.of(1, 2))),
+                contains(namePrefix.getId(), inName.getId()));
+    }
+
+    @Test
+    void shouldPageOwnerItemsFromOffsetTest() {
+        Long ownerId = inDescription.getOwner().getId();
+
+        assertThat(ids(itemRepository.findAllByOwnerId(ownerId, OffsetPageRequest.of(1, 2, Sort.by("id")))),
+                contains(inName.getId(), namePrefix.getId()));
+    }
+
+    @Test
+    void shouldFindAnswersToSeveralRequestsTest() {
+        User requester = factory.getUser(null);
+        requester.setEmail("requester@mail.ru");
+        requester = entityManager.persist(requester);
+        ItemRequest first = entityManager.persist(newRequest(requester));
+        ItemRequest second = entityManager.persist(newRequest(requester));
+        ItemRequest other = entityManager.persist(newRequest(requester));
+        inName.setRequest(first);
+        namePrefix.setRequest(first);
+        exactName.setRequest(second);
+        inDescription.setRequest(other);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Item> items = itemRepository.findAllByRequestIdIn(List.of(first.getId(), second.getId()));
+
+        assertThat(ids(items), containsInAnyOrder(inName.getId(), namePrefix.getId(), exactName.getId()));
+        assertThat(items.stream().map(item -> item.getRequest().getId()).collect(Collectors.toList()),
+                containsInAnyOrder(first.getId(), first.getId(), second.getId()));
+        assertThat(items.stream().anyMatch(item -> Hibernate.isInitialized(item.getRequest())), is(false));
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private ItemRequest newRequest(User requester) {
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequester(requester);
+        return request;
+    }
+
+    private Item newItem(User owner, String name, String description, boolean available) {
+        Item item = factory.getItem(null, owner);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей: like-запрос к H2 против {@link InMemoryItemSearchEngine} на миллионе вещей.
+ * Запуск: main-метод из тестового classpath модуля server, нужна куча около 3 ГБ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class ItemSearchBenchmark {
+
+    private static final int ITEMS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int QUERIES = 256;
+    private static final int PAGE = 20;
+    private static final String[] SYLLABLES = {"ka", "ro", "mi", "te", "lu", "sa", "no", "vi", "de", "po",
+            "ra", "zu", "be", "lo", "ni", "ta", "gu", "fe", "mo", "si"};
+    private static final String LIKE_QUERY = "select id from items where is_available = true " +
+            "and (upper(name) like upper(concat('%', ?1, '%')) or upper(description) like upper(concat('%', ?1, '%'))) " +
+            "order by case when upper(name) = upper(?1) then 0 " +
+            "when upper(name) like upper(concat(?1, '%')) then 1 " +
+            "when upper(name) like upper(concat('%', ?1, '%')) then 2 " +
+            "else 3 end, id limit " + PAGE;
+
+    @Param({"word", "substring"})
+    private String queryKind;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private InMemoryItemSearchEngine engine;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = 3 + random.nextInt(2); j > 0; j--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.toString();
+        }
+        connection = DriverManager.getConnection("jdbc:h2:mem:item_search_" + queryKind);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id bigint primary key, name varchar(255) not null, " +
+                    "description varchar(512) not null, is_available boolean not null)");
+        }
+        engine = new InMemoryItemSearchEngine(null);
+        try (PreparedStatement insert = connection.prepareStatement("insert into items values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= ITEMS; id++) {
+                Item item = new Item();
+                item.setId(id);
+                item.setName(sentence(words, random, 2));
+                item.setDescription(sentence(words, random, 6));
+                item.setAvailable(random.nextInt(10) > 0);
+                engine.onItemSaved(item);
+                insert.setLong(1, id);
+                insert.setString(2, item.getName());
+                insert.setString(3, item.getDescription());
+                insert.setBoolean(4, item.getAvailable());
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        likeStatement = connection.prepareStatement(LIKE_QUERY);
+
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = words[random.nextInt(VOCABULARY)];
+            queries[i] = queryKind.equals("word") ? word : word.substring(1, 5);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        likeStatement.setString(1, queries[next++ & (QUERIES - 1)]);
+        List<Long> ids = new ArrayList<>(PAGE);
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> inMemoryIndex() {
+        return engine.searchIds(queries[next++ & (QUERIES - 1)], 0, PAGE);
+    }
+
+    private static String sentence(String[] words, Random random, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(words[random.nextInt(words.length)]);
+        }
+        return sentence.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -5,7 +5,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.FreeInterval;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.constant.Status;
@@ -13,14 +17,17 @@ import ru.practicum.shareit.error.BadRequestException;
 import ru.practicum.shareit.error.ForbiddenException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOwner;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -56,6 +63,12 @@ public class ItemServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
     private final ModelFactory factory = ModelFactory.getInstance();
 
     @Test
@@ -90,7 +103,8 @@ public class ItemServiceTest {
         verify(userRepository, times(1)).findById(eq(user.getId()));
         verify(itemRequestRepository, times(1)).findById(eq(itemRequest.getId()));
         verify(itemRepository, times(1)).save(any(Item.class));
-        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
+        verify(itemSearchEngine, times(1)).onItemSaved(eq(item));
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository, itemSearchEngine);
     }
 
     @Test
@@ -302,11 +316,13 @@ public class ItemServiceTest {
                 comment2
         );
 
-        when(itemRepository.findAllByOwnerId(eq(owner.getId()), any(Sort.class))).thenReturn(itemList);
-        when(bookingRepository.findAllByItem_IdIn(anyList())).thenReturn(item1bookingList);
+        when(itemRepository.findAllByOwnerId(eq(owner.getId()), eq(OffsetPageRequest.of(5, 20, Sort.by("id")))))
+                .thenReturn(itemList);
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(item1.getId(), item2.getId())),
+                any(LocalDateTime.class))).thenReturn(item1bookingList);
         when(commentRepository.findAllByItem_IdIn(anyList())).thenReturn(item1commentList);
 
-        List<ItemDto> resultDtoList = new ArrayList<>(itemService.getOwnerItems(owner.getId()));
+        List<ItemDto> resultDtoList = new ArrayList<>(itemService.getOwnerItems(owner.getId(), 5, 20));
         ItemDtoOwner item11 = (ItemDtoOwner) resultDtoList.get(0);
         ItemDtoOwner item22 = (ItemDtoOwner) resultDtoList.get(1);
 
@@ -339,12 +355,42 @@ public class ItemServiceTest {
 
         assertThat(item22.getComments().size(), equalTo(0));
 
-        verify(itemRepository, times(1)).findAllByOwnerId(eq(owner.getId()), any(Sort.class));
-        verify(bookingRepository, times(1)).findAllByItem_IdIn(anyList());
+        verify(itemRepository, times(1)).findAllByOwnerId(eq(owner.getId()), any(Pageable.class));
+        verify(bookingRepository, times(1)).findLastAndNextApprovedByItemIdIn(anyList(), any(LocalDateTime.class));
         verify(commentRepository, times(1)).findAllByItem_IdIn(anyList());
         verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
 
+    @Test
+    void shouldGetOwnerItemsAfterIdTest() {
+        User owner = getUser(1L);
+        Item item = getItem(12L);
+        item.setOwner(owner);
+
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(eq(owner.getId()), eq(11L),
+                eq(PageRequest.of(0, 2, Sort.by("id"))))).thenReturn(List.of(item));
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(commentRepository.findAllByItem_IdIn(eq(List.of(item.getId())))).thenReturn(List.of());
+
+        List<ItemDto> result = itemService.getOwnerItemsAfter(owner.getId(), 11L, 2);
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getId(), equalTo(item.getId()));
+        assertThat(((ItemDtoOwner) result.get(0)).getLastBooking(), equalTo(null));
+        assertThat(((ItemDtoOwner) result.get(0)).getComments().size(), equalTo(0));
+    }
+
+    @Test
+    void shouldNotQueryBookingsForEmptyOwnerPageTest() {
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThat(itemService.getOwnerItemsAfter(1L, 0L, 2).size(), equalTo(0));
+
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
     @Test
     void shouldGetAllBySearchTextTest() {
         String searchText = "Item";
@@ -357,9 +403,9 @@ public class ItemServiceTest {
                 item2
         );
 
-        when(itemRepository.search(eq(searchText))).thenReturn(itemList);
+        when(itemSearchEngine.search(eq(searchText), eq(2), eq(2))).thenReturn(itemList);
 
-        List<ItemDto> resultDtoList = new ArrayList<>(itemService.getItemsByKeyword(searchText));
+        List<ItemDto> resultDtoList = new ArrayList<>(itemService.getItemsByKeyword(searchText, 2, 2));
 
         assertThat(resultDtoList.size(), equalTo(2));
 
@@ -373,13 +419,14 @@ public class ItemServiceTest {
         assertThat(resultDtoList.get(1).getDescription(), equalTo(item2.getDescription()));
         assertThat(resultDtoList.get(1).getAvailable(), equalTo(item2.getAvailable()));
 
-        verify(itemRepository, times(1)).search(eq(searchText));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verify(itemSearchEngine, times(1)).search(eq(searchText), eq(2), eq(2));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository,
+                itemRequestRepository, itemSearchEngine);
     }
 
     @Test
     void shouldGetAllBySearchTextTest_BlankQuery() {
-        Collection<ItemDto> resultDtoList = itemService.getItemsByKeyword(" ");
+        Collection<ItemDto> resultDtoList = itemService.getItemsByKeyword(" ", 0, 20);
 
         assertThat(resultDtoList.size(), equalTo(0));
 
@@ -393,7 +440,7 @@ public class ItemServiceTest {
         User owner = getUser(1L);
 
         Item item = getItem(10L);
-        item.setOwner(owner);
+        item.setOwner(getUser(owner.getId()));
 
         when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
@@ -408,7 +455,9 @@ public class ItemServiceTest {
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
         verify(itemRepository, times(1)).save(any(Item.class));
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+        verify(itemSearchEngine, times(1)).onItemSaved(eq(item));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository,
+                itemRequestRepository, itemSearchEngine);
     }
 
     @Test
@@ -477,6 +526,40 @@ public class ItemServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository);
     }
 
+    @Test
+    void shouldGetAvailabilityTest() {
+        Item item = getItem(10L);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
+        when(availabilityIndex.getFreeIntervals(eq(item.getId()), eq(from), eq(to)))
+                .thenReturn(List.of(new FreeInterval(from, from.plusDays(1)), new FreeInterval(from.plusDays(3), to)));
+
+        List<FreeIntervalDto> result = itemService.getAvailability(item.getId(), from, to);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(1).getStart(), equalTo(from.plusDays(3)));
+        assertThat(result.get(1).getEnd(), equalTo(to));
+
+        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verify(availabilityIndex, times(1)).getFreeIntervals(eq(item.getId()), eq(from), eq(to));
+        verifyNoMoreInteractions(itemRepository, availabilityIndex);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void shouldGetAvailabilityTest_BadRange() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        BadRequestException e = assertThrows(BadRequestException.class, () ->
+                itemService.getAvailability(10L, from, from));
+
+        assertThat(e.getMessage(), equalTo("Invalid availability range."));
+
+        verifyNoInteractions(itemRepository, availabilityIndex);
+    }
+
     private User getUser(Long id) {
         User user = new User();
         user.setId(id);
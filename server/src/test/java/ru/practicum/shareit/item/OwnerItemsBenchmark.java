@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constant.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сборка списка вещей владельца в {@link ItemServiceImpl#getOwnerItems}: фильтрация полных списков
+ * для каждой вещи против группировки по id вещи, и выгрузка всех аренд против оконного запроса.
+ * Запуск: main-метод из тестового classpath модуля server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OwnerItemsBenchmark {
+
+    private static final int BOOKINGS_PER_ITEM = 50;
+    private static final int COMMENTS_PER_ITEM = 5;
+    private static final long OWNER_ID = 1L;
+    private static final String ALL_BOOKINGS_QUERY = "select b.* from bookings b " +
+            "join items i on i.id = b.item_id where i.owner_id = ?";
+    private static final String WINDOW_QUERY = "select id, start_date, end_date, item_id, status from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from bookings b join items i on i.id = b.item_id " +
+            "where i.owner_id = ? and b.status = 'APPROVED' and b.end_date < ?) as last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, start_date, end_date, item_id, status from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from bookings b join items i on i.id = b.item_id " +
+            "where i.owner_id = ? and b.status = 'APPROVED' and b.start_date > ?) as next_bookings " +
+            "where rn = 1";
+
+    @Param({"1000", "10000"})
+    private int items;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private Connection connection;
+    private List<Item> itemList;
+    private List<Booking> allBookings;
+    private List<Booking> windowBookings;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:owner_items_" + items);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id bigint primary key, owner_id bigint not null)");
+            statement.execute("create table bookings (id bigint primary key, item_id bigint not null, " +
+                    "start_date timestamp not null, end_date timestamp not null, status varchar(16) not null)");
+            statement.execute("create index ix_bookings_item on bookings (item_id)");
+        }
+        itemList = new ArrayList<>();
+        allBookings = new ArrayList<>();
+        comments = new ArrayList<>();
+        Random random = new Random(42);
+        long bookingId = 0;
+        try (PreparedStatement insertItem = connection.prepareStatement("insert into items values (?, ?)");
+             PreparedStatement insertBooking = connection.prepareStatement(
+                     "insert into bookings values (?, ?, ?, ?, ?)")) {
+            for (long itemId = 1; itemId <= items; itemId++) {
+                Item item = new Item();
+                item.setId(itemId);
+                itemList.add(item);
+                insertItem.setLong(1, itemId);
+                insertItem.setLong(2, OWNER_ID);
+                insertItem.addBatch();
+                for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                    LocalDateTime start = now.plusDays(random.nextInt(200) - 100);
+                    Booking booking = new Booking();
+                    booking.setId(++bookingId);
+                    booking.setItem(item);
+                    booking.setStart(start);
+                    booking.setEnd(start.plusDays(1));
+                    booking.setStatus(random.nextInt(4) == 0 ? Status.REJECTED : Status.APPROVED);
+                    allBookings.add(booking);
+                    insertBooking.setLong(1, booking.getId());
+                    insertBooking.setLong(2, itemId);
+                    insertBooking.setTimestamp(3, Timestamp.valueOf(booking.getStart()));
+                    insertBooking.setTimestamp(4, Timestamp.valueOf(booking.getEnd()));
+                    insertBooking.setString(5, booking.getStatus().name());
+                    insertBooking.addBatch();
+                }
+                for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                    Comment comment = new Comment();
+                    comment.setId(itemId * COMMENTS_PER_ITEM + i);
+                    comment.setItem(item);
+                    comments.add(comment);
+                }
+                if (itemId % 1000 == 0) {
+                    insertItem.executeBatch();
+                    insertBooking.executeBatch();
+                }
+            }
+            insertItem.executeBatch();
+            insertBooking.executeBatch();
+        }
+        windowBookings = windowQuery();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int filterPerItem() {
+        List<Booking> lastBookings = allBookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now))
+                .collect(Collectors.toList());
+        List<Booking> nextBookings = allBookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .collect(Collectors.toList());
+        int found = 0;
+        for (Item item : itemList) {
+            List<Comment> c = comments.stream()
+                    .filter(comment -> comment.getItem().getId().equals(item.getId()))
+                    .collect(Collectors.toList());
+            Optional<Booking> lastBooking = lastBookings.stream()
+                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                    .max(Comparator.comparing(Booking::getEnd));
+            Optional<Booking> nextBooking = nextBookings.stream()
+                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                    .min(Comparator.comparing(Booking::getStart));
+            found += c.size() + (lastBooking.isPresent() ? 1 : 0) + (nextBooking.isPresent() ? 1 : 0);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int groupByItem() {
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : windowBookings) {
+            Map<Long, Booking> target = booking.getEnd().isBefore(now) ? lastBookings : nextBookings;
+            target.put(booking.getItem().getId(), booking);
+        }
+        Map<Long, List<Comment>> byItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        int found = 0;
+        for (Item item : itemList) {
+            found += byItem.getOrDefault(item.getId(), List.of()).size()
+                    + (lastBookings.containsKey(item.getId()) ? 1 : 0)
+                    + (nextBookings.containsKey(item.getId()) ? 1 : 0);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int loadAllBookings() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(ALL_BOOKINGS_QUERY)) {
+            statement.setLong(1, OWNER_ID);
+            return readBookings(statement).size();
+        }
+    }
+
+    @Benchmark
+    public List<Booking> windowQuery() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(WINDOW_QUERY)) {
+            statement.setLong(1, OWNER_ID);
+            statement.setTimestamp(2, Timestamp.valueOf(now));
+            statement.setLong(3, OWNER_ID);
+            statement.setTimestamp(4, Timestamp.valueOf(now));
+            return readBookings(statement);
+        }
+    }
+
+    private List<Booking> readBookings(PreparedStatement statement) throws SQLException {
+        List<Booking> bookings = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                Item item = new Item();
+                item.setId(resultSet.getLong("item_id"));
+                Booking booking = new Booking();
+                booking.setId(resultSet.getLong("id"));
+                booking.setItem(item);
+                booking.setStart(resultSet.getTimestamp("start_date").toLocalDateTime());
+                booking.setEnd(resultSet.getTimestamp("end_date").toLocalDateTime());
+                booking.setStatus(Status.valueOf(resultSet.getString("status")));
+                bookings.add(booking);
+            }
+        }
+        return bookings;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OwnerItemsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
@@ -111,6 +112,42 @@ public class ItemRequestControllerTest {
         verifyNoMoreInteractions(itemRequestService);
     }
 
+    @Test
+    void shouldGetFeedPageAfterCursorTest() throws Exception {
+        Long userId = 1L;
+
+        ItemResponseWithItemsDto responseDto = getResponseDto(1L);
+
+        when(itemRequestService.getAllAfterCursor(eq(userId), eq(""), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(responseDto), "next"));
+
+        mockMvc.perform(get("/requests/all")
+                        .header(OWNER_ID_HEADER, userId)
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(responseDto.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(itemRequestService, times(1)).getAllAfterCursor(eq(userId), eq(""), eq(20));
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
+    @Test
+    void shouldRejectInvalidCursorPageSizeTest() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("cursor", "")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/requests/all")
+                        .header(OWNER_ID_HEADER, 1L)
+                        .param("cursor", "")
+                        .param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemRequestService);
+    }
+
     @Test
     void shouldGetByIdTest() throws Exception {
         Long userId = 1L;
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.request;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Подбор вещей-ответов для страницы заявок в {@link ItemRequestServiceImpl#getAllByRequesterId}: все вещи авторов
+ * заявок с фильтрацией для каждой заявки против запроса request_id in (...), как его строит Hibernate,
+ * с группировкой за один проход.
+ * Страница - requests заявок одного пользователя, у которого заявок в десять раз больше.
+ * Запуск: main-метод из тестового classpath модуля server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestFeedBenchmark {
+
+    private static final int ITEMS_PER_REQUEST = 3;
+    private static final int PAGES = 10;
+    private static final long REQUESTER_ID = 1L;
+    private static final String BY_REQUESTER_QUERY = "select i.id, i.request_id from items i " +
+            "join requests r on r.id = i.request_id where r.requester_id = ?";
+
+    @Param({"100", "500"})
+    private int requests;
+
+    private Connection connection;
+    private List<ItemRequest> page;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:request_feed_" + requests);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table requests (id bigint primary key, requester_id bigint not null)");
+            statement.execute("create table items (id bigint primary key, request_id bigint)");
+            statement.execute("create index ix_requests_requester on requests (requester_id)");
+            statement.execute("create index ix_items_request on items (request_id)");
+        }
+        page = new ArrayList<>();
+        long itemId = 0;
+        try (PreparedStatement insertRequest = connection.prepareStatement("insert into requests values (?, ?)");
+             PreparedStatement insertItem = connection.prepareStatement("insert into items values (?, ?)")) {
+            for (long requestId = 1; requestId <= (long) requests * PAGES; requestId++) {
+                if (requestId <= requests) {
+                    ItemRequest request = new ItemRequest();
+                    request.setId(requestId);
+                    page.add(request);
+                }
+                insertRequest.setLong(1, requestId);
+                insertRequest.setLong(2, REQUESTER_ID);
+                insertRequest.addBatch();
+                for (int i = 0; i < ITEMS_PER_REQUEST; i++) {
+                    insertItem.setLong(1, ++itemId);
+                    insertItem.setLong(2, requestId);
+                    insertItem.addBatch();
+                }
+            }
+            insertRequest.executeBatch();
+            insertItem.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int filterPerRequest() throws SQLException {
+        List<Item> items;
+        try (PreparedStatement statement = connection.prepareStatement(BY_REQUESTER_QUERY)) {
+            statement.setLong(1, REQUESTER_ID);
+            items = readItems(statement);
+        }
+        int found = 0;
+        for (ItemRequest request : page) {
+            found += items.stream()
+                    .filter(item -> item.getRequest().getId().equals(request.getId()))
+                    .collect(Collectors.toList())
+                    .size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int groupByRequest() throws SQLException {
+        List<Item> items;
+        String byRequestQuery = "select i.id, i.request_id from items i where i.request_id in ("
+                + String.join(", ", Collections.nCopies(page.size(), "?")) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(byRequestQuery)) {
+            for (int i = 0; i < page.size(); i++) {
+                statement.setLong(i + 1, page.get(i).getId());
+            }
+            items = readItems(statement);
+        }
+        Map<Long, List<Item>> byRequest = items.stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+        int found = 0;
+        for (ItemRequest request : page) {
+            found += byRequest.getOrDefault(request.getId(), List.of()).size();
+        }
+        return found;
+    }
+
+    private List<Item> readItems(PreparedStatement statement) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ItemRequest request = new ItemRequest();
+                request.setId(resultSet.getLong("request_id"));
+                Item item = new Item();
+                item.setId(resultSet.getLong("id"));
+                item.setRequest(request);
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemRequestFeedBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.feed.FeedEntry;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ItemRequestFeedTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private ItemRequestFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ItemRequestFeed(itemRequestRepository, 4);
+    }
+
+    @Test
+    void shouldServeAllPagesWhileHoldingEveryRequestTest() {
+        rebuild(request(3L, 1L, 3), request(2L, 2L, 2), request(1L, 1L, 1));
+
+        assertThat(ids(feed.find(2L, null, 0, 10)), contains(3L, 1L));
+        assertThat(ids(feed.find(2L, new Cursor(BASE.plusMinutes(3), 3L), 0, 10)), contains(1L));
+        assertThat(ids(feed.find(1L, null, 1, 10)), empty());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseBeyondBufferTest() {
+        rebuild(request(5L, 1L, 5), request(4L, 2L, 4), request(3L, 1L, 3), request(2L, 2L, 2));
+
+        assertThat(ids(feed.find(2L, null, 0, 2)), contains(5L, 3L));
+        assertThat(feed.find(2L, null, 0, 3), equalTo(Optional.empty()));
+        assertThat(feed.find(2L, new Cursor(BASE.plusMinutes(3), 3L), 0, 1), equalTo(Optional.empty()));
+        assertThat(ids(feed.find(1L, null, 1, 1)), contains(2L));
+    }
+
+    @Test
+    void shouldEvictOldestAndKeepFeedOrderTest() {
+        rebuild(request(3L, 1L, 3), request(2L, 1L, 2), request(1L, 1L, 1));
+
+        feed.onRequestCreated(request(4L, 1L, 4));
+        feed.onRequestCreated(request(6L, 1L, 6));
+        feed.onRequestCreated(request(5L, 1L, 5));
+        feed.onRequestCreated(request(0L, 1L, 0));
+
+        assertThat(ids(feed.find(2L, null, 0, 4)), contains(6L, 5L, 4L, 3L));
+        assertThat(feed.find(2L, null, 0, 5), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void shouldOrderByIdWithinSameTimeTest() {
+        rebuild(request(7L, 1L, 1), request(5L, 1L, 1));
+
+        feed.onRequestCreated(request(6L, 1L, 1));
+
+        assertThat(ids(feed.find(2L, null, 0, 10)), contains(7L, 6L, 5L));
+        assertThat(ids(feed.find(2L, new Cursor(BASE.plusMinutes(1), 6L), 0, 10)), contains(5L));
+    }
+
+    @Test
+    void shouldDropDeletedRequesterTest() {
+        rebuild(request(3L, 1L, 3), request(2L, 2L, 2), request(1L, 1L, 1));
+
+        feed.onRequesterDeleted(1L);
+
+        assertThat(ids(feed.find(3L, null, 0, 10)), contains(2L));
+    }
+
+    private void rebuild(ItemRequest... requests) {
+        when(itemRequestRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(requests)));
+        feed.rebuild();
+    }
+
+    private List<Long> ids(Optional<List<FeedEntry>> page) {
+        return page.orElseThrow().stream().map(FeedEntry::getId).collect(Collectors.toList());
+    }
+
+    private ItemRequest request(Long id, Long requesterId, int minute) {
+        User requester = new User();
+        requester.setId(requesterId);
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setRequester(requester);
+        request.setDescription("Need a drill");
+        request.setCreated(BASE.plusMinutes(minute));
+        return request;
+    }
+}
@@ -9,21 +9,27 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemResponseDto;
 import ru.practicum.shareit.request.dto.ItemResponseWithItemsDto;
+import ru.practicum.shareit.request.feed.FeedEntry;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -41,6 +47,9 @@ public class ItemRequestServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
     private final ModelFactory factory = ModelFactory.getInstance();
 
     @Test
@@ -88,7 +97,8 @@ public class ItemRequestServiceTest {
         when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
         when(itemRequestRepository.findAllByRequesterIdOrderByCreated(eq(requester.getId()), any(Pageable.class)))
                 .thenReturn(itemRequestList);
-        when(itemRepository.findAllByRequestRequesterIdIn(anyList())).thenReturn(List.of(item1));
+        when(itemRepository.findAllByRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(List.of(item1, item2));
 
         List<ItemResponseWithItemsDto> resultDtoList = (List<ItemResponseWithItemsDto>) itemRequestService
                 .getAllByRequesterId(requester.getId(), 0, 10);
@@ -107,16 +117,16 @@ public class ItemRequestServiceTest {
         assertThat(resultDtoList.get(1).getId(), equalTo(itemRequest2.getId()));
         assertThat(resultDtoList.get(1).getDescription(), equalTo(itemRequest2.getDescription()));
         assertThat(resultDtoList.get(1).getItems().size(), equalTo(1));
-        assertThat(resultDtoList.get(1).getItems().get(0).getId(), equalTo(item1.getId()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getName(), equalTo(item1.getName()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getDescription(), equalTo(item1.getDescription()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getAvailable(), equalTo(item1.getAvailable()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item1.getRequest().getId()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getId(), equalTo(item2.getId()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getName(), equalTo(item2.getName()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getDescription(), equalTo(item2.getDescription()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getAvailable(), equalTo(item2.getAvailable()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item2.getRequest().getId()));
 
         verify(userRepository, times(1)).findById(eq(requester.getId()));
         verify(itemRequestRepository, times(1))
                 .findAllByRequesterIdOrderByCreated(eq(requester.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByRequestRequesterIdIn(anyList());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyList());
         verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
     }
 
@@ -145,7 +155,8 @@ public class ItemRequestServiceTest {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(itemRequestRepository.findAllByRequesterIdNot(eq(owner.getId()), any(Pageable.class)))
                 .thenReturn(itemRequestList);
-        when(itemRepository.findAllByRequestRequesterIdIn(anyList())).thenReturn(List.of(item1));
+        when(itemRepository.findAllByRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(List.of(item1, item2));
 
         List<ItemResponseWithItemsDto> resultDtoList = (List<ItemResponseWithItemsDto>) itemRequestService
                 .getAll(owner.getId(), 0, 10);
@@ -164,15 +175,15 @@ public class ItemRequestServiceTest {
         assertThat(resultDtoList.get(1).getId(), equalTo(itemRequest2.getId()));
         assertThat(resultDtoList.get(1).getDescription(), equalTo(itemRequest2.getDescription()));
         assertThat(resultDtoList.get(1).getItems().size(), equalTo(1));
-        assertThat(resultDtoList.get(1).getItems().get(0).getId(), equalTo(item1.getId()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getName(), equalTo(item1.getName()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getDescription(), equalTo(item1.getDescription()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getAvailable(), equalTo(item1.getAvailable()));
-        assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item1.getRequest().getId()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getId(), equalTo(item2.getId()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getName(), equalTo(item2.getName()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getDescription(), equalTo(item2.getDescription()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getAvailable(), equalTo(item2.getAvailable()));
+        assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item2.getRequest().getId()));
 
         verify(itemRequestRepository, times(1))
                 .findAllByRequesterIdNot(eq(owner.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByRequestRequesterIdIn(anyList());
+        verify(itemRepository, times(1)).findAllByRequestIdIn(anyList());
         verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
     }
 
@@ -208,6 +219,60 @@ public class ItemRequestServiceTest {
         verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
     }
 
+    @Test
+    void shouldGetFeedPageFromBufferTest() {
+        User owner = factory.getUser(1L);
+        LocalDateTime created = LocalDateTime.now();
+        FeedEntry newest = new FeedEntry(11L, 2L, "Request11", created);
+        FeedEntry older = new FeedEntry(10L, 2L, "Request10", created.minusMinutes(1));
+        Item item = factory.getItem(100L, owner);
+        item.setRequest(getItemRequest(11L));
+
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(itemRequestFeed.find(eq(owner.getId()), isNull(), eq(0), eq(2)))
+                .thenReturn(Optional.of(List.of(newest, older)));
+        when(itemRepository.findAllByRequestIdIn(eq(List.of(11L)))).thenReturn(List.of(item));
+
+        CursorPage<ItemResponseWithItemsDto> page = itemRequestService.getAllAfterCursor(owner.getId(), "", 1);
+
+        assertThat(page.getContent().size(), equalTo(1));
+        assertThat(page.getContent().get(0).getId(), equalTo(newest.getId()));
+        assertThat(page.getContent().get(0).getDescription(), equalTo(newest.getDescription()));
+        assertThat(page.getContent().get(0).getItems().get(0).getId(), equalTo(item.getId()));
+        assertThat(page.getNextCursor(), equalTo(new Cursor(created, 11L).encode()));
+
+        verify(itemRequestFeed, times(1)).find(eq(owner.getId()), isNull(), eq(0), eq(2));
+        verify(itemRepository, times(1)).findAllByRequestIdIn(eq(List.of(11L)));
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository, itemRequestFeed);
+    }
+
+    @Test
+    void shouldGetFeedPageFromDatabaseAfterCursorTest() {
+        User owner = factory.getUser(1L);
+        LocalDateTime created = LocalDateTime.now();
+        Cursor cursor = new Cursor(created, 11L);
+        ItemRequest itemRequest = getItemRequest(10L);
+        itemRequest.setCreated(created.minusMinutes(1));
+
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(itemRequestFeed.find(eq(owner.getId()), any(Cursor.class), eq(0), eq(21))).thenReturn(Optional.empty());
+        when(itemRequestRepository.findAllByRequesterIdNotBefore(eq(owner.getId()), eq(created), eq(11L),
+                any(Pageable.class))).thenReturn(List.of(itemRequest));
+        when(itemRepository.findAllByRequestIdIn(eq(List.of(10L)))).thenReturn(List.of());
+
+        CursorPage<ItemResponseWithItemsDto> page = itemRequestService
+                .getAllAfterCursor(owner.getId(), cursor.encode(), 20);
+
+        assertThat(page.getContent().size(), equalTo(1));
+        assertThat(page.getContent().get(0).getId(), equalTo(itemRequest.getId()));
+        assertThat(page.getContent().get(0).getItems().size(), equalTo(0));
+        assertThat(page.getNextCursor(), nullValue());
+
+        verify(itemRequestRepository, times(1)).findAllByRequesterIdNotBefore(eq(owner.getId()), eq(created),
+                eq(11L), any(Pageable.class));
+    }
+
     private ItemRequest getItemRequest(Long id) {
         ItemRequest request = new ItemRequest();
         request.setId(id);
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Удаление пользователя на настоящей базе: каскад удаляет и вещи других владельцев, ответившие на его заявки,
+ * а индексы в памяти должны остаться согласованными с таблицами
+ */
+@SpringBootTest(properties = "shareit.search.engine=memory")
+public class UserCascadeDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private InMemoryItemSearchEngine searchEngine;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    private User owner;
+    private User requester;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(newUser("owner"));
+        requester = userRepository.save(newUser("requester"));
+        request = new ItemRequest();
+        request.setDescription("Need a drill");
+        request.setRequester(requester);
+        request.setCreated(LocalDateTime.now());
+        request = itemRequestRepository.save(request);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldDropAnswersOfDeletedRequesterFromSearchTest() {
+        ItemDto kept = itemService.addItem(newItem("Drill press", null), owner.getId());
+        ItemDto answer = itemService.addItem(newItem("Cordless drill", request.getId()), owner.getId());
+        itemService.addItem(newItem("Old drill", null), requester.getId());
+
+        userService.deleteById(requester.getId());
+
+        assertThat(itemRepository.findById(answer.getId()).isPresent(), is(false));
+        assertThat(searchEngine.searchIds("drill", 0, 10), contains(kept.getId()));
+    }
+
+    @Test
+    void shouldReleaseBookingsOfAnswersOfDeletedRequesterTest() {
+        User booker = userRepository.save(newUser("booker"));
+        ItemDto answer = itemService.addItem(newItem("Cordless drill", request.getId()), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        BookingDtoIn bookingDtoIn = new BookingDtoIn();
+        bookingDtoIn.setItemId(answer.getId());
+        bookingDtoIn.setStart(start);
+        bookingDtoIn.setEnd(end);
+        bookingService.addBooking(booker.getId(), bookingDtoIn);
+        assertThat(availabilityIndex.isFree(answer.getId(), start, end), is(false));
+
+        userService.deleteById(requester.getId());
+
+        assertThat(bookingRepository.count(), is(0L));
+        assertThat(availabilityIndex.isFree(answer.getId(), start, end), is(true));
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@cascade.ru");
+        return user;
+    }
+
+    private ItemDto newItem(String name, Long requestId) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(name + " for rent");
+        itemDto.setAvailable(true);
+        itemDto.setRequestId(requestId);
+        return itemDto;
+    }
+}
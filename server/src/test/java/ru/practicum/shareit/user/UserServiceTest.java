@@ -6,13 +6,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.index.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.modelFactory.ModelFactory;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +42,27 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
     private final ModelFactory factory = ModelFactory.getInstance();
 
     @Test
@@ -134,9 +166,21 @@ public class UserServiceTest {
 
     @Test
     void shouldDeleteTest() {
+        List<BookingInterval> cascaded = List.of(new BookingInterval(10L, 5L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1)));
+        when(bookingRepository.findAllIntervalsByUserIdAndStatusIn(eq(1L),
+                eq(BookingAvailabilityIndex.BLOCKING_STATUSES))).thenReturn(cascaded);
+        when(itemRepository.findAllIdsCascadedWithUser(eq(1L))).thenReturn(List.of(5L, 7L));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+
         userService.deleteById(1L);
 
         verify(userRepository, times(1)).deleteById(eq(1L));
-        verifyNoMoreInteractions(userRepository);
+        verify(availabilityIndex, times(1)).releaseAll(eq(cascaded));
+        verify(itemRequestFeed, times(1)).onRequesterDeleted(eq(1L));
+        verify(itemSearchEngine, times(1)).onItemsDeleted(eq(List.of(5L, 7L)));
+        verify(cache, times(1)).evict(eq(Item.class));
+        verify(cache, times(1)).evict(eq(ItemRequest.class));
+        verifyNoMoreInteractions(userRepository, itemRequestFeed);
     }
 }
\ No newline at end of file